@@ -0,0 +1,115 @@
+package com.allenmp.algs;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.graph.ValueGraph;
+
+/**
+ * One corner-to-corner query per invocation, including the algorithm's own
+ * setup, on square grids of the {@link TestGraphFactory} shapes. Run with the
+ * {@code benchmark} profile, see the pom.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShortestPathBenchmark {
+
+    public enum Shape {
+	RANDOM_GRID, DIRECTED_GRID;
+
+	ValueGraph<Node, Double> build(int size) {
+	    switch (this) {
+	    case RANDOM_GRID:
+		return TestGraphFactory.randomWeightGridExample(size, size, 42L);
+	    case DIRECTED_GRID:
+		return TestGraphFactory.directedGridExample(size, size);
+	    default:
+		throw new IllegalStateException("Unknown shape: " + this);
+	    }
+	}
+    }
+
+    @Param({ "20", "50", "100" })
+    public int size;
+
+    @Param({ "RANDOM_GRID", "DIRECTED_GRID" })
+    public Shape shape;
+
+    private ValueGraph<Node, Double> graph;
+    private CsrGraph<Node> csr;
+    private CoordinateStore<Node> coordinates;
+    private Node start;
+    private Node goal;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+	graph = shape.build(size);
+	// grid ids run from 1 in one corner to size * size in the other; the
+	// heuristics need the graph's own nodes, which carry the coordinates
+	start = node(1);
+	goal = node(size * size);
+	csr = CsrGraph.compile(graph);
+	coordinates = CoordinateStore.of(csr, Node::getCoords);
+    }
+
+    private Node node(int id) {
+	return graph.nodes().stream().filter(n -> n.getId() == id).findAny().get();
+    }
+
+    @Benchmark
+    public double dijkstra() {
+	return query(new DijkstraShortestPath<>(graph));
+    }
+
+    @Benchmark
+    public double astarEuclidean() {
+	return query(new AstarShortestPath<>(graph, new EuclideanDistance()));
+    }
+
+    @Benchmark
+    public double astarManhattan() {
+	return query(new AstarShortestPath<>(graph, new ManhattanDistance()));
+    }
+
+    @Benchmark
+    public double astarZero() {
+	return query(new AstarShortestPath<>(graph, new ZeroDistance()));
+    }
+
+    @Benchmark
+    public double csrAstarEuclidean() {
+	return query(new CsrAstarShortestPath<>(csr, new EuclideanDistance()));
+    }
+
+    @Benchmark
+    public double csrAstarCoordinateStore() {
+	return query(new CsrAstarShortestPath<>(csr, CoordinateHeuristic.euclidean(coordinates)));
+    }
+
+    @Benchmark
+    public double bellmanFord() {
+	return query(new BellmanFordShortestPath<>(graph));
+    }
+
+    private double query(ShortestPathAlg<Node> alg) {
+	alg.setEndpoints(start, goal);
+	return alg.pathLength();
+    }
+
+}
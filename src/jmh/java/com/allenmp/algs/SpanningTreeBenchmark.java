@@ -0,0 +1,49 @@
+package com.allenmp.algs;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One spanning tree per invocation on a compiled random-weight grid.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpanningTreeBenchmark {
+
+    @Param({ "50", "100", "200" })
+    public int size;
+
+    private CsrGraph<Node> graph;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+	graph = CsrGraph.compile(TestGraphFactory.randomWeightGridExample(size, size, 42L));
+    }
+
+    @Benchmark
+    public double prim() {
+	return new PrimsSpanningTree<>(graph).totalWeight();
+    }
+
+    @Benchmark
+    public double boruvka() {
+	return new BoruvkaSpanningTree<>(graph).totalWeight();
+    }
+
+}
@@ -0,0 +1,255 @@
+package com.allenmp.algs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Endpoint handling and path reconstruction shared by the
+ * {@link ShortestPathAlg} implementations that run on a {@link CsrGraph}.
+ * Subclasses record distances and predecessors in the {@link SearchWorkspace}
+ * from {@link #search()} and count their work in the protected counters,
+ * which are reported as {@link SearchStats} once per query.
+ *
+ * @param <T>
+ *            node type
+ */
+abstract class AbstractCsrShortestPath<T> implements ShortestPathAlg<T>, InstrumentedSearch {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractCsrShortestPath.class);
+
+    protected final CsrGraph<T> graph;
+
+    protected int start = -1;
+    protected int goal = -1;
+    private boolean calc = false;
+
+    // Distance and previous node index along the shortest route, per node
+    protected final SearchWorkspace ws;
+
+    // Number of nodes that were given a previous node
+    protected int reached;
+
+    // Work of the current query, plain fields so counting costs next to nothing
+    protected long settled;
+    protected long relaxations;
+    protected long decreaseKeys;
+    protected long heuristicEvaluations;
+
+    private SearchListener listener;
+    private SearchStats stats;
+
+    // Start node and workspace epoch of the last search, to tell whether the
+    // workspace still holds it
+    private int searched = -1;
+    private int searchedEpoch;
+
+    protected AbstractCsrShortestPath(CsrGraph<T> graph, SearchWorkspace ws) {
+	super();
+	this.graph = Objects.requireNonNull(graph);
+	this.ws = Objects.requireNonNull(ws);
+	if (ws.capacity() < graph.nodeCount()) {
+	    throw new IllegalArgumentException(
+		    "Workspace capacity " + ws.capacity() + " is smaller than the graph: " + graph.nodeCount());
+	}
+    }
+
+    @Override
+    public void setEndpoints(T start, T goal) {
+	setStart(start);
+	setGoal(goal);
+    }
+
+    @Override
+    public void setStart(T newStart) {
+	int index = graph.indexOf(newStart);
+	if (index < 0) {
+	    throw new IllegalArgumentException("Graph does not contain start node: " + newStart);
+	}
+	if (index != start) {
+	    calc = false;
+	}
+	this.start = index;
+    }
+
+    @Override
+    public void setGoal(T newGoal) {
+	int index = graph.indexOf(newGoal);
+	if (index < 0) {
+	    throw new IllegalArgumentException("Graph does not contain goal node: " + newGoal);
+	}
+	if (index != goal) {
+	    calc = false;
+	}
+	this.goal = index;
+    }
+
+    @Override
+    public List<T> path() {
+	if (goal == start) {
+	    return Arrays.asList(graph.node(start), graph.node(start));
+	}
+
+	calculate();
+
+	if (Double.isInfinite(ws.dist(goal))) {
+	    // goal is unreachable
+	    return new ArrayList<>();
+	}
+
+	Object event = SearchEvents.beginUnpack();
+
+	// walk path backward from goal to start
+	List<T> path = new ArrayList<>();
+	for (int n = goal; n != start; n = ws.prev(n)) {
+	    path.add(graph.node(n));
+	}
+	path.add(graph.node(start));
+	Collections.reverse(path);
+
+	unpacked(event, path);
+	LOG.debug("Path: {}", path);
+	return path;
+    }
+
+    @Override
+    public double pathLength() {
+	calculate();
+
+	double minLength = ws.dist(goal);
+	LOG.debug("FinalDistance: min={}", minLength);
+	return minLength;
+    }
+
+    @Override
+    public int countVisited() {
+	calculate();
+	return reached;
+    }
+
+    /**
+     * @param listener
+     *            told about every query from now on, or null for none
+     */
+    @Override
+    public void setSearchListener(SearchListener listener) {
+	this.listener = listener;
+    }
+
+    /**
+     * @return what the last query did, null before the first one
+     */
+    @Override
+    public SearchStats searchStats() {
+	return stats;
+    }
+
+    protected void calculate() {
+	if (calc) {
+	    LOG.trace("AlreadyCalculated");
+	    return;
+	}
+	if (start < 0) {
+	    throw new NullPointerException("start");
+	}
+	if (goal < 0) {
+	    throw new NullPointerException("goal");
+	}
+
+	Object event = SearchEvents.beginSearch();
+	long begin = System.nanoTime();
+	settled = 0;
+	relaxations = 0;
+	decreaseKeys = 0;
+	heuristicEvaluations = 0;
+
+	if (start == searched && ws.epoch() == searchedEpoch && resume()) {
+	    calc = true;
+	    finish(begin, event, true);
+	    return;
+	}
+
+	Object setup = SearchEvents.beginSetup();
+	// O(1): every node reads as unreached until the search touches it
+	ws.reset();
+	reached = 0;
+	ws.update(start, 0.0, -1);
+	searched = start;
+	searchedEpoch = ws.epoch();
+	if (SearchEvents.shouldCommit(setup)) {
+	    SearchEvents.commitSetup(setup, getClass(), graph.nodeCount());
+	}
+
+	search();
+	calc = true;
+	finish(begin, event, false);
+    }
+
+    private void finish(long begin, Object event, boolean resumed) {
+	stats = new SearchStats(settled, relaxations, decreaseKeys, heuristicEvaluations, reached,
+		System.nanoTime() - begin);
+	if (SearchEvents.shouldCommit(event)) {
+	    SearchEvents.commitSearch(event, getClass(), graph.nodeCount(), graph.node(start), graph.node(goal),
+		    resumed, settled, relaxations, reached);
+	}
+	if (listener != null) {
+	    listener.searchFinished(stats);
+	}
+    }
+
+    /**
+     * Commits an event begun before building the path, for subclasses that
+     * build it themselves.
+     */
+    protected final void unpacked(Object event, List<T> path) {
+	if (SearchEvents.shouldCommit(event)) {
+	    SearchEvents.commitUnpack(event, getClass(), path.size());
+	}
+    }
+
+    /**
+     * Called instead of a new search when only the goal changed since the last
+     * one, with the workspace as that search left it.
+     *
+     * @return false to search again from scratch
+     */
+    protected boolean resume() {
+	return false;
+    }
+
+    /**
+     * Records a shorter distance to the node, counting the node the first time
+     * it is given a previous node.
+     */
+    protected final void update(int node, double distance, int previous) {
+	if (ws.prev(node) < 0) {
+	    reached++;
+	}
+	ws.update(node, distance, previous);
+    }
+
+    /**
+     * Queues the node, or lowers its key if it is already queued, counting
+     * the decrease-keys.
+     */
+    protected final void push(IntMinHeap heap, int node, double key, double tie) {
+	if (heap.contains(node)) {
+	    decreaseKeys++;
+	    heap.decreaseKey(node, key, tie);
+	} else {
+	    heap.insert(node, key, tie);
+	}
+    }
+
+    /**
+     * Runs the search from {@link #start}; the workspace is already reset and
+     * holds only the start node.
+     */
+    protected abstract void search();
+
+}
@@ -2,22 +2,19 @@ package com.allenmp.algs;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.BitSet;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.graph.ValueGraph;
 
-public class AstarShortestPath<T> implements ShortestPathAlg<T> {
+public class AstarShortestPath<T> implements ShortestPathAlg<T>, InstrumentedSearch {
 
     private static final Logger LOG = LoggerFactory.getLogger(DijkstraShortestPath.class);
 
@@ -31,16 +28,37 @@ public class AstarShortestPath<T> implements ShortestPathAlg<T> {
     // Actual distance from source to node
     private Map<T, Double> nodeToGScore = new HashMap<>();
 
-    // fScore(node) = gScore(start, node) + heuristic(node, goal)
+    // Open set keyed by fScore(node) = gScore(start, node) + heuristic(node, goal)
     // "total cost is actual cost to current node, plus estimated cost from current node to goal"
-    private Map<T, Double> nodeToFScore = new HashMap<>();
-    
+    // with ties broken toward the smaller heuristic, i.e. the node closest to the goal
+    private NodeMinHeap<T> openSet = new NodeMinHeap<>();
+
+    // Closed set as one bit per node, by the node's position in graph.nodes()
+    private Map<T, Integer> nodeToIndex = new HashMap<>();
+    private BitSet closedSet = new BitSet();
+
+    // heuristic(node, goal) by node index, memoized for the current query
+    private double[] nodeToH;
+    private BitSet hasH = new BitSet();
+
     private Map<T, T> nodeToPrev = new HashMap<>();
 
+    // Work of the current query, reported as SearchStats when it finishes
+    private long settled;
+    private long relaxations;
+    private long decreaseKeys;
+    private long heuristicEvaluations;
+    private SearchListener listener;
+    private SearchStats stats;
+
     public AstarShortestPath(ValueGraph<T, Double> graph, DistanceFunction<T> heuristic) {
 	super();
 	this.graph = Objects.requireNonNull(graph);
 	this.heuristic = Objects.requireNonNull(heuristic);
+	for (T n : graph.nodes()) {
+	    nodeToIndex.put(n, nodeToIndex.size());
+	}
+	nodeToH = new double[nodeToIndex.size()];
     }
     
     public void setEndpoints(T start, T goal) {
@@ -75,11 +93,13 @@ public class AstarShortestPath<T> implements ShortestPathAlg<T> {
 
 	calculate();
 
-	if (Double.isInfinite(nodeToGScore.get(goal))) {
+	if (Double.isInfinite(getGScore(goal))) {
 	    // goal is unreachable
 	    return new ArrayList<>();
 	}
 
+	Object event = SearchEvents.beginUnpack();
+
 	// walk path backward from goal to start
 	LinkedList<T> path = new LinkedList<>();
 	path.addLast(goal);
@@ -89,6 +109,9 @@ public class AstarShortestPath<T> implements ShortestPathAlg<T> {
 	    path.addFirst(prev);
 	}
 
+	if (SearchEvents.shouldCommit(event)) {
+	    SearchEvents.commitUnpack(event, getClass(), path.size());
+	}
 	LOG.debug("Path: {}", path);
 	return path;
     }
@@ -98,10 +121,27 @@ public class AstarShortestPath<T> implements ShortestPathAlg<T> {
 	return nodeToPrev.size();
     }
 
+    /**
+     * @param listener
+     *            told about every query from now on, or null for none
+     */
+    @Override
+    public void setSearchListener(SearchListener listener) {
+	this.listener = listener;
+    }
+
+    /**
+     * @return what the last query did, null before the first one
+     */
+    @Override
+    public SearchStats searchStats() {
+	return stats;
+    }
+
     public double pathLength() {
 	calculate();
 	
-	double minLength = nodeToGScore.get(goal);
+	double minLength = getGScore(goal);
 	LOG.debug("FinalDistances: nodeToDist={} min={}", nodeToGScore, minLength);
 	return minLength;	
     }
@@ -114,74 +154,102 @@ public class AstarShortestPath<T> implements ShortestPathAlg<T> {
 	
 	Objects.requireNonNull(start);
 	Objects.requireNonNull(goal);
-	
+
+	Object event = SearchEvents.beginSearch();
+	long begin = System.nanoTime();
+	settled = 0;
+	relaxations = 0;
+	decreaseKeys = 0;
+	heuristicEvaluations = 0;
+
 	// init
-	
-	// TODO use PriorityQueue
-	Set<T> openSet = new HashSet<>();
-	openSet.add(start);
-	Set<T> closedSet = new HashSet<>();
+	Object setup = SearchEvents.beginSetup();
+	openSet.clear();
+	closedSet.clear();
+	hasH.clear();
 	nodeToGScore.clear();
-	nodeToFScore.clear();
 	nodeToPrev.clear();
-	for (T n : graph.nodes()) {
-	    nodeToGScore.put(n, Double.POSITIVE_INFINITY);
-	    nodeToFScore.put(n, Double.POSITIVE_INFINITY);
+	if (SearchEvents.shouldCommit(setup)) {
+	    SearchEvents.commitSetup(setup, getClass(), graph.nodes().size());
 	}
 
-	// source-source distance = 0
+	// source-source distance = 0, every other node is unknown (infinite) until discovered
 	nodeToGScore.put(start, 0.0);
 	// source-goal distance is entirely heuristic
-	nodeToFScore.put(start, heuristic.between(start, goal));
+	double startH = estimate(start, nodeToIndex.get(start));
+	openSet.insert(start, startH, startH);
 
 	while (!openSet.isEmpty()) {
 	    
-	    // unvisited node with smallest heuristic distance
-	    T u = Collections.min(openSet, new Comparator<T>() {
-		@Override
-		public int compare(T o1, T o2) {
-		    return nodeToFScore.get(o1).compareTo(nodeToFScore.get(o2));
-		}
-	    });
+	    // open node with smallest fScore
+	    T u = openSet.poll();
 	    double gScore = nodeToGScore.get(u);
-	    double fScore = nodeToFScore.get(u);
 
 	    // mark U as "visited"
-	    openSet.remove(u);
-	    closedSet.add(u);
-
-	    LOG.trace("Visit: node={} gScore={} fScore={}", u, gScore, fScore);
+	    closedSet.set(nodeToIndex.get(u));
+	    settled++;
 
 	    // terminate early if we reached the goal
 	    if (goal.equals(u)) {
 		LOG.trace("Terminating");
 		calc = true;
+		finish(begin, event);
 		return;
 	    }
 	    
 	    // shortest (cumulative) path to each of U's neighbors N
 	    for (T n : graph.adjacentNodes(u)) {
-		if (closedSet.contains(n)) {
-		    LOG.trace("AlreadyVisited: n={}", n);
+		relaxations++;
+		int index = nodeToIndex.get(n);
+		if (closedSet.get(index)) {
 		    continue;
 		}
 		
 		double newGScore = gScore + graph.edgeValueOrDefault(u, n, Double.POSITIVE_INFINITY);
 
-		LOG.trace("Neighbor: n={} alt={}", n, newGScore);
-		openSet.add(n);
-
-		// if there's a shorter path to N, update G and F scores
-		double oldGScore = nodeToGScore.get(n);
+		// if there's a shorter path to N, update G and F scores; an open
+		// node that has a gScore is still in the open set
+		double oldGScore = getGScore(n);
 		if (newGScore < oldGScore) {
-		    LOG.trace("FoundShorterPath: node={} old={} new={}", n, oldGScore, newGScore);
+		    if (oldGScore != Double.POSITIVE_INFINITY) {
+			decreaseKeys++;
+		    }
+		    double h = estimate(n, index);
 		    nodeToGScore.put(n, newGScore);
-		    nodeToFScore.put(n, newGScore + heuristic.between(n, goal));
+		    openSet.insertOrDecrease(n, newGScore + h, h);
 		    nodeToPrev.put(n, u);
 		}
 	    }
 	}
 	
 	calc = true;
+	finish(begin, event);
+    }
+
+    private void finish(long begin, Object event) {
+	stats = new SearchStats(settled, relaxations, decreaseKeys, heuristicEvaluations, nodeToPrev.size(),
+		System.nanoTime() - begin);
+	if (SearchEvents.shouldCommit(event)) {
+	    SearchEvents.commitSearch(event, getClass(), graph.nodes().size(), start, goal, false, settled,
+		    relaxations, nodeToPrev.size());
+	}
+	if (listener != null) {
+	    listener.searchFinished(stats);
+	}
+    }
+
+    private double estimate(T node, int index) {
+	if (hasH.get(index)) {
+	    return nodeToH[index];
+	}
+	double h = heuristic.between(node, goal);
+	heuristicEvaluations++;
+	nodeToH[index] = h;
+	hasH.set(index);
+	return h;
+    }
+
+    private double getGScore(T node) {
+	return nodeToGScore.getOrDefault(node, Double.POSITIVE_INFINITY);
     }
 }
@@ -0,0 +1,205 @@
+package com.allenmp.algs;
+
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.graph.ValueGraph;
+
+/**
+ * Bidirectional A* on a {@link CsrGraph}, following NBA* (Pijls &amp; Post,
+ * "Yet another bidirectional algorithm for shortest paths", 2009).
+ * <p>
+ * The forward side is A* toward the goal with {@code h(v, goal)} and the
+ * backward side is A* over incoming edges toward the start with
+ * {@code h(start, v)}; the two take turns. A node settled by either side is
+ * closed for both. Before expanding a node {@code u} the search rejects it if
+ * {@code g(u) + h(u)} already reaches the best meeting distance {@code mu}, or
+ * if {@code g(u)} plus the other side's smallest fScore, minus the other
+ * side's heuristic at {@code u}, does. The search ends when either open set is
+ * empty.
+ * <p>
+ * Paths are optimal when the heuristic is consistent
+ * ({@code h(u, x) <= w(u, v) + h(v, x)}), which also makes it admissible;
+ * {@link EuclideanDistance} and {@link ManhattanDistance} are on graphs whose
+ * edge weights are at least the coordinate distance. The heuristic should be
+ * symmetric on directed graphs since both argument orders are used. Each
+ * side keeps the estimates it computes in its workspace, so the heuristic is
+ * called at most once per node, side and query.
+ *
+ * @param <T>
+ *            node type
+ */
+public class BidirectionalAstarShortestPath<T> extends AbstractCsrShortestPath<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BidirectionalAstarShortestPath.class);
+
+    private final DistanceFunction<T> heuristic;
+
+    // the heuristic if it works on this graph's indices, otherwise null
+    private final IndexedDistanceFunction<T> indexed;
+
+    // Backward search state; the forward search uses the inherited workspace
+    private final SearchWorkspace bws;
+
+    public BidirectionalAstarShortestPath(ValueGraph<T, Double> graph, DistanceFunction<T> heuristic) {
+	this(CsrGraph.compile(graph), heuristic);
+    }
+
+    public BidirectionalAstarShortestPath(CsrGraph<T> graph, DistanceFunction<T> heuristic) {
+	this(graph, heuristic, new SearchWorkspace(graph.nodeCount()), new SearchWorkspace(graph.nodeCount()));
+    }
+
+    public BidirectionalAstarShortestPath(CsrGraph<T> graph, DistanceFunction<T> heuristic, SearchWorkspace forward,
+	    SearchWorkspace backward) {
+	super(graph, forward);
+	if (forward == backward) {
+	    throw new IllegalArgumentException("Forward and backward searches need separate workspaces");
+	}
+	if (backward.capacity() < graph.nodeCount()) {
+	    throw new IllegalArgumentException(
+		    "Workspace capacity " + backward.capacity() + " is smaller than the graph: " + graph.nodeCount());
+	}
+	this.heuristic = Objects.requireNonNull(heuristic);
+	IndexedDistanceFunction<T> indexed = heuristic instanceof IndexedDistanceFunction
+		? (IndexedDistanceFunction<T>) heuristic : null;
+	this.indexed = indexed != null && indexed.graph() == graph ? indexed : null;
+	this.bws = backward;
+    }
+
+    @Override
+    protected void search() {
+	IntMinHeap forward = ws.heap();
+	IntMinHeap backward = bws.heap();
+
+	bws.reset();
+	bws.update(goal, 0.0, -1);
+	forward.insert(start, toGoal(start));
+	backward.insert(goal, fromStart(goal));
+
+	double mu = Double.POSITIVE_INFINITY;
+	int meet = -1;
+
+	// a node settled or rejected by either side is closed in the forward
+	// workspace and never touched again
+	boolean forwardTurn = false;
+	while (!forward.isEmpty() && !backward.isEmpty()) {
+	    forwardTurn = !forwardTurn;
+	    if (forwardTurn) {
+		int u = forward.poll();
+		if (ws.isClosed(u)) {
+		    continue;
+		}
+		ws.close(u);
+		double du = ws.dist(u);
+
+		// reject U if no path through it can beat mu
+		if (du + toGoal(u) >= mu || du + backward.peekKey() - fromStart(u) >= mu) {
+		    continue;
+		}
+		settled++;
+		relaxations += graph.edgeEnd(u) - graph.edgeStart(u);
+
+		for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+		    int v = graph.target(e);
+		    if (ws.isClosed(v)) {
+			continue;
+		    }
+		    double alternate = du + graph.weight(e);
+		    if (alternate < ws.dist(v)) {
+			reach(v);
+			ws.update(v, alternate, u);
+			push(forward, v, alternate + toGoal(v), 0.0);
+			if (bws.isReached(v) && alternate + bws.dist(v) < mu) {
+			    mu = alternate + bws.dist(v);
+			    meet = v;
+			}
+		    }
+		}
+	    } else {
+		int u = backward.poll();
+		if (ws.isClosed(u)) {
+		    continue;
+		}
+		ws.close(u);
+		double du = bws.dist(u);
+
+		if (du + fromStart(u) >= mu || du + forward.peekKey() - toGoal(u) >= mu) {
+		    continue;
+		}
+		settled++;
+		relaxations += graph.inEdgeEnd(u) - graph.inEdgeStart(u);
+
+		for (int e = graph.inEdgeStart(u), end = graph.inEdgeEnd(u); e < end; e++) {
+		    int v = graph.source(e);
+		    if (ws.isClosed(v)) {
+			continue;
+		    }
+		    double alternate = du + graph.inWeight(e);
+		    if (alternate < bws.dist(v)) {
+			reach(v);
+			bws.update(v, alternate, u);
+			push(backward, v, alternate + fromStart(v), 0.0);
+			if (ws.isReached(v) && ws.dist(v) + alternate < mu) {
+			    mu = ws.dist(v) + alternate;
+			    meet = v;
+			}
+		    }
+		}
+	    }
+	}
+
+	if (meet < 0) {
+	    LOG.trace("Unreachable");
+	    return;
+	}
+	LOG.trace("Meet: node={} mu={}", meet, mu);
+
+	// graft the backward tree from meet to goal onto the forward tree so
+	// the inherited path walk sees one chain from goal back to start
+	for (int n = meet; n != goal;) {
+	    int next = bws.prev(n);
+	    ws.update(next, ws.dist(n) + bws.dist(n) - bws.dist(next), n);
+	    n = next;
+	}
+	ws.update(goal, mu, ws.prev(goal));
+    }
+
+    /**
+     * @return {@code h(node, goal)}, kept in the forward workspace
+     */
+    private double toGoal(int node) {
+	if (ws.hasEstimate(node)) {
+	    return ws.estimate(node);
+	}
+	heuristicEvaluations++;
+	double h = indexed != null ? indexed.between(node, goal) : heuristic.between(graph.node(node), graph.node(goal));
+	ws.setEstimate(node, h);
+	return h;
+    }
+
+    /**
+     * @return {@code h(start, node)}, kept in the backward workspace
+     */
+    private double fromStart(int node) {
+	if (bws.hasEstimate(node)) {
+	    return bws.estimate(node);
+	}
+	heuristicEvaluations++;
+	double h = indexed != null ? indexed.between(start, node)
+		: heuristic.between(graph.node(start), graph.node(node));
+	bws.setEstimate(node, h);
+	return h;
+    }
+
+    /**
+     * Counts a node the first time either side reaches it.
+     */
+    private void reach(int node) {
+	if (ws.prev(node) < 0 && bws.prev(node) < 0) {
+	    reached++;
+	}
+    }
+
+}
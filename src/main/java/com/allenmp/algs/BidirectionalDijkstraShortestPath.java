@@ -0,0 +1,144 @@
+package com.allenmp.algs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.graph.ValueGraph;
+
+/**
+ * Dijkstra searching forward from the start and backward from the goal at the
+ * same time, on a {@link CsrGraph}. The backward search follows incoming edges,
+ * so it also works on directed graphs.
+ * <p>
+ * Each step expands the side with the smaller frontier. The best meeting
+ * distance {@code mu} is tracked as the two searches touch; once the two
+ * smallest queued distances add up to at least {@code mu} no shorter path can
+ * exist and the search stops. {@link #countVisited()} counts the nodes reached
+ * by either side.
+ *
+ * @param <T>
+ *            node type
+ */
+public class BidirectionalDijkstraShortestPath<T> extends AbstractCsrShortestPath<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BidirectionalDijkstraShortestPath.class);
+
+    // Backward search state; the forward search uses the inherited workspace
+    private final SearchWorkspace bws;
+
+    public BidirectionalDijkstraShortestPath(ValueGraph<T, Double> graph) {
+	this(CsrGraph.compile(graph));
+    }
+
+    public BidirectionalDijkstraShortestPath(CsrGraph<T> graph) {
+	this(graph, new SearchWorkspace(graph.nodeCount()), new SearchWorkspace(graph.nodeCount()));
+    }
+
+    public BidirectionalDijkstraShortestPath(CsrGraph<T> graph, SearchWorkspace forward, SearchWorkspace backward) {
+	super(graph, forward);
+	if (forward == backward) {
+	    throw new IllegalArgumentException("Forward and backward searches need separate workspaces");
+	}
+	if (backward.capacity() < graph.nodeCount()) {
+	    throw new IllegalArgumentException(
+		    "Workspace capacity " + backward.capacity() + " is smaller than the graph: " + graph.nodeCount());
+	}
+	this.bws = backward;
+    }
+
+    @Override
+    protected void search() {
+	if (start == goal) {
+	    // the start is already in the workspace at distance 0
+	    return;
+	}
+	IntMinHeap forward = ws.heap();
+	IntMinHeap backward = bws.heap();
+
+	bws.reset();
+	bws.update(goal, 0.0, -1);
+	forward.insert(start, 0.0);
+	backward.insert(goal, 0.0);
+
+	double mu = Double.POSITIVE_INFINITY;
+	int meet = -1;
+
+	while (!forward.isEmpty() && !backward.isEmpty()) {
+	    // no path through an unsettled node can beat mu any more
+	    if (forward.peekKey() + backward.peekKey() >= mu) {
+		break;
+	    }
+
+	    if (forward.size() <= backward.size()) {
+		int u = forward.poll();
+		ws.close(u);
+		settled++;
+		relaxations += graph.edgeEnd(u) - graph.edgeStart(u);
+		double du = ws.dist(u);
+		for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+		    int v = graph.target(e);
+		    if (ws.isClosed(v)) {
+			continue;
+		    }
+		    double alternate = du + graph.weight(e);
+		    if (alternate < ws.dist(v)) {
+			reach(v);
+			ws.update(v, alternate, u);
+			push(forward, v, alternate, 0.0);
+		    }
+		    if (bws.isReached(v) && ws.dist(v) + bws.dist(v) < mu) {
+			mu = ws.dist(v) + bws.dist(v);
+			meet = v;
+		    }
+		}
+	    } else {
+		int u = backward.poll();
+		bws.close(u);
+		settled++;
+		relaxations += graph.inEdgeEnd(u) - graph.inEdgeStart(u);
+		double du = bws.dist(u);
+		for (int e = graph.inEdgeStart(u), end = graph.inEdgeEnd(u); e < end; e++) {
+		    int v = graph.source(e);
+		    if (bws.isClosed(v)) {
+			continue;
+		    }
+		    double alternate = du + graph.inWeight(e);
+		    if (alternate < bws.dist(v)) {
+			reach(v);
+			bws.update(v, alternate, u);
+			push(backward, v, alternate, 0.0);
+		    }
+		    if (ws.isReached(v) && ws.dist(v) + bws.dist(v) < mu) {
+			mu = ws.dist(v) + bws.dist(v);
+			meet = v;
+		    }
+		}
+	    }
+	}
+
+	if (meet < 0) {
+	    LOG.trace("Unreachable");
+	    return;
+	}
+	LOG.trace("Meet: node={} mu={}", meet, mu);
+
+	// graft the backward tree from meet to goal onto the forward tree so
+	// the inherited path walk sees one chain from goal back to start
+	for (int n = meet; n != goal;) {
+	    int next = bws.prev(n);
+	    ws.update(next, ws.dist(n) + bws.dist(n) - bws.dist(next), n);
+	    n = next;
+	}
+	ws.update(goal, mu, ws.prev(goal));
+    }
+
+    /**
+     * Counts a node the first time either side reaches it.
+     */
+    private void reach(int node) {
+	if (ws.prev(node) < 0 && bws.prev(node) < 0) {
+	    reached++;
+	}
+    }
+
+}
@@ -0,0 +1,207 @@
+package com.allenmp.algs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.ValueGraph;
+
+/**
+ * Boruvka's algorithm on a {@link CsrGraph}, parallel on a
+ * {@link ForkJoinPool}.
+ * <p>
+ * Each round every component picks its cheapest edge to another component, in
+ * parallel over the live edges with a compare-and-set minimum per component
+ * root. The picked edges are merged with a {@link ConcurrentUnionFind}, and
+ * edges that now lie inside one component are dropped from the edge list
+ * before the next round. Every round at least halves the number of
+ * components, so there are at most log V rounds. Ties are broken by edge
+ * index, which keeps the picked edges acyclic and makes the total weight the
+ * same as any other minimum spanning forest, e.g. {@link PrimsSpanningTree}'s.
+ *
+ * @param <T>
+ *            node type
+ */
+public class BoruvkaSpanningTree<T> implements SpanningTreeAlg<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BoruvkaSpanningTree.class);
+
+    private final CsrGraph<T> graph;
+    private final ForkJoinPool pool;
+    private boolean calc = false;
+
+    // each undirected edge once, in graph direction
+    private int[] edgeFrom;
+    private int[] edgeTo;
+    private double[] edgeWeight;
+
+    // indices of the forest's edges
+    private int[] tree;
+    private double totalWeight;
+    private int treeCount;
+
+    public BoruvkaSpanningTree(ValueGraph<T, Double> graph) {
+	this(CsrGraph.compile(graph));
+    }
+
+    public BoruvkaSpanningTree(CsrGraph<T> graph) {
+	this(graph, ForkJoinPool.commonPool());
+    }
+
+    public BoruvkaSpanningTree(CsrGraph<T> graph, ForkJoinPool pool) {
+	super();
+	this.graph = Objects.requireNonNull(graph);
+	this.pool = Objects.requireNonNull(pool);
+    }
+
+    @Override
+    public List<EndpointPair<T>> edges() {
+	calculate();
+	List<EndpointPair<T>> edges = new ArrayList<>(tree.length);
+	for (int e : tree) {
+	    T u = graph.node(edgeFrom[e]);
+	    T v = graph.node(edgeTo[e]);
+	    edges.add(graph.isDirected() ? EndpointPair.ordered(u, v) : EndpointPair.unordered(u, v));
+	}
+	return edges;
+    }
+
+    @Override
+    public double totalWeight() {
+	calculate();
+	return totalWeight;
+    }
+
+    @Override
+    public int countTrees() {
+	calculate();
+	return treeCount;
+    }
+
+    private void calculate() {
+	if (calc) {
+	    return;
+	}
+	long begin = System.nanoTime();
+	collectEdges();
+
+	int n = graph.nodeCount();
+	ConcurrentUnionFind components = new ConcurrentUnionFind(n);
+	AtomicIntegerArray cheapest = new AtomicIntegerArray(n);
+	boolean[] inTree = new boolean[edgeFrom.length];
+
+	int[] live = IntStream.range(0, edgeFrom.length).toArray();
+	int rounds = 0;
+	while (live.length > 0) {
+	    rounds++;
+	    int[] edges = live;
+	    invoke(() -> {
+		IntStream.range(0, n).parallel().forEach(c -> cheapest.set(c, -1));
+		return null;
+	    });
+
+	    // cheapest edge leaving each component
+	    invoke(() -> {
+		IntStream.of(edges).parallel().forEach(e -> {
+		    offer(cheapest, components.find(edgeFrom[e]), e);
+		    offer(cheapest, components.find(edgeTo[e]), e);
+		});
+		return null;
+	    });
+
+	    // both ends of an edge may pick it, only the first union counts
+	    invoke(() -> {
+		IntStream.range(0, n).parallel().forEach(c -> {
+		    int e = cheapest.get(c);
+		    if (e >= 0 && components.union(edgeFrom[e], edgeTo[e])) {
+			inTree[e] = true;
+		    }
+		});
+		return null;
+	    });
+
+	    live = invoke(() -> IntStream.of(edges).parallel()
+		    .filter(e -> !components.sameSet(edgeFrom[e], edgeTo[e])).toArray());
+	    LOG.trace("Round: {} liveEdges={}", rounds, live.length);
+	}
+
+	tree = IntStream.range(0, inTree.length).filter(e -> inTree[e]).toArray();
+	totalWeight = 0;
+	for (int e : tree) {
+	    totalWeight += edgeWeight[e];
+	}
+	treeCount = n - tree.length;
+	calc = true;
+	LOG.debug("SpanningForest: nodes={} edges={} trees={} weight={} rounds={} millis={}", n, tree.length,
+		treeCount, totalWeight, rounds, (System.nanoTime() - begin) / 1000000);
+    }
+
+    /**
+     * Lists every edge once: undirected edges are stored both ways in the CSR
+     * arrays, so only the copy from the lower index is kept. Self loops never
+     * join two components and are left out.
+     */
+    private void collectEdges() {
+	int n = graph.nodeCount();
+	boolean directed = graph.isDirected();
+	int count = 0;
+	for (int u = 0; u < n; u++) {
+	    for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+		int v = graph.target(e);
+		if (directed ? u != v : u < v) {
+		    count++;
+		}
+	    }
+	}
+	edgeFrom = new int[count];
+	edgeTo = new int[count];
+	edgeWeight = new double[count];
+	int i = 0;
+	for (int u = 0; u < n; u++) {
+	    for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+		int v = graph.target(e);
+		if (directed ? u != v : u < v) {
+		    edgeFrom[i] = u;
+		    edgeTo[i] = v;
+		    edgeWeight[i] = graph.weight(e);
+		    i++;
+		}
+	    }
+	}
+    }
+
+    // compare-and-set minimum by weight, then edge index
+    private void offer(AtomicIntegerArray cheapest, int component, int e) {
+	while (true) {
+	    int current = cheapest.get(component);
+	    if (current >= 0 && (edgeWeight[current] < edgeWeight[e]
+		    || (edgeWeight[current] == edgeWeight[e] && current <= e))) {
+		return;
+	    }
+	    if (cheapest.compareAndSet(component, current, e)) {
+		return;
+	    }
+	}
+    }
+
+    private <R> R invoke(Supplier<R> task) {
+	try {
+	    return pool.submit(task::get).get();
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    throw new IllegalStateException("Interrupted during Boruvka", e);
+	} catch (ExecutionException e) {
+	    throw new IllegalStateException("Boruvka failed", e.getCause());
+	}
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.allenmp.algs;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free disjoint sets over {@code 0..n-1}. Roots are linked with
+ * compare-and-set, the higher index under the lower, and finds halve paths as
+ * they go, so any number of threads may find and union at the same time.
+ */
+class ConcurrentUnionFind {
+
+    private final AtomicIntegerArray parent;
+
+    ConcurrentUnionFind(int n) {
+	super();
+	parent = new AtomicIntegerArray(n);
+	for (int i = 0; i < n; i++) {
+	    parent.set(i, i);
+	}
+    }
+
+    int find(int x) {
+	while (true) {
+	    int p = parent.get(x);
+	    if (p == x) {
+		return x;
+	    }
+	    int grandparent = parent.get(p);
+	    if (p != grandparent) {
+		// path halving; losing the race only means less compression
+		parent.compareAndSet(x, p, grandparent);
+	    }
+	    x = p;
+	}
+    }
+
+    boolean sameSet(int a, int b) {
+	while (true) {
+	    a = find(a);
+	    b = find(b);
+	    if (a == b) {
+		return true;
+	    }
+	    // a is still a root, so no union happened in between
+	    if (parent.get(a) == a) {
+		return false;
+	    }
+	}
+    }
+
+    /**
+     * @return true if the sets were merged, false if already the same set
+     */
+    boolean union(int a, int b) {
+	while (true) {
+	    a = find(a);
+	    b = find(b);
+	    if (a == b) {
+		return false;
+	    }
+	    if (a < b) {
+		int t = a;
+		a = b;
+		b = t;
+	    }
+	    if (parent.compareAndSet(a, a, b)) {
+		return true;
+	    }
+	}
+    }
+
+}
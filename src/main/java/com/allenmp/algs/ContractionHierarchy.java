@@ -0,0 +1,518 @@
+package com.allenmp.algs;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.graph.ValueGraph;
+
+/**
+ * Contraction Hierarchies preprocessing over a {@link CsrGraph}, queried with
+ * {@link ContractionHierarchyShortestPath}.
+ * <p>
+ * Nodes are contracted one at a time in order of importance (edge difference,
+ * number of already contracted neighbors and hierarchy level, updated lazily). Contracting a
+ * node {@code x} adds a shortcut {@code u -> v} for each pair of remaining
+ * neighbors unless a bounded witness search finds a path from {@code u} to
+ * {@code v} avoiding {@code x} that is no longer. The initial importance of
+ * every node is computed in parallel on a {@link ForkJoinPool}; the
+ * contraction itself is sequential.
+ * <p>
+ * The result keeps two upward graphs in CSR form: edges to higher ranked nodes
+ * for the forward search, and edges from higher ranked nodes (stored at their
+ * lower end) for the backward search. Every edge remembers the contracted node
+ * it bypasses, or -1 for an original edge, so paths can be unpacked.
+ *
+ * @param <T>
+ *            node type
+ */
+public class ContractionHierarchy<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ContractionHierarchy.class);
+
+    // witness searches give up after settling this many nodes; estimating a
+    // node's importance can afford to be rougher than actually contracting it
+    private static final int ESTIMATE_SETTLE_LIMIT = 50;
+    private static final int CONTRACT_SETTLE_LIMIT = 500;
+
+    private final CsrGraph<T> graph;
+    private final int[] rank;
+    private final int shortcutCount;
+
+    // upward edges u -> v with rank[v] > rank[u], listed at u
+    final int[] upOffsets;
+    final int[] upSources;
+    final int[] upTargets;
+    final double[] upWeights;
+    final int[] upMiddle;
+
+    // edges u -> v with rank[u] > rank[v], listed at v for the backward search
+    final int[] downOffsets;
+    final int[] downSources;
+    final int[] downTargets;
+    final double[] downWeights;
+    final int[] downMiddle;
+
+    private ContractionHierarchy(CsrGraph<T> graph, int[] rank, int shortcutCount, EdgeBuffer up,
+	    EdgeBuffer down) {
+	super();
+	this.graph = graph;
+	this.rank = rank;
+	this.shortcutCount = shortcutCount;
+
+	int n = graph.nodeCount();
+	upOffsets = offsets(n, up.from, up.size);
+	upSources = new int[up.size];
+	upTargets = new int[up.size];
+	upWeights = new double[up.size];
+	upMiddle = new int[up.size];
+	int[] fill = Arrays.copyOf(upOffsets, n);
+	for (int i = 0; i < up.size; i++) {
+	    int e = fill[up.from[i]]++;
+	    upSources[e] = up.from[i];
+	    upTargets[e] = up.to[i];
+	    upWeights[e] = up.weight[i];
+	    upMiddle[e] = up.middle[i];
+	}
+
+	downOffsets = offsets(n, down.to, down.size);
+	downSources = new int[down.size];
+	downTargets = new int[down.size];
+	downWeights = new double[down.size];
+	downMiddle = new int[down.size];
+	fill = Arrays.copyOf(downOffsets, n);
+	for (int i = 0; i < down.size; i++) {
+	    int e = fill[down.to[i]]++;
+	    downSources[e] = down.from[i];
+	    downTargets[e] = down.to[i];
+	    downWeights[e] = down.weight[i];
+	    downMiddle[e] = down.middle[i];
+	}
+    }
+
+    private static int[] offsets(int n, int[] owner, int size) {
+	int[] offsets = new int[n + 1];
+	for (int i = 0; i < size; i++) {
+	    offsets[owner[i] + 1]++;
+	}
+	for (int u = 0; u < n; u++) {
+	    offsets[u + 1] += offsets[u];
+	}
+	return offsets;
+    }
+
+    public static <T> ContractionHierarchy<T> build(ValueGraph<T, Double> graph) {
+	return build(CsrGraph.compile(graph));
+    }
+
+    public static <T> ContractionHierarchy<T> build(CsrGraph<T> graph) {
+	return build(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool
+     *            runs the parallel part of the node ordering
+     */
+    public static <T> ContractionHierarchy<T> build(CsrGraph<T> graph, ForkJoinPool pool) {
+	Objects.requireNonNull(graph);
+	Objects.requireNonNull(pool);
+	long begin = System.nanoTime();
+	Object ordering = SearchEvents.beginPreprocess();
+
+	int n = graph.nodeCount();
+	DynamicGraph g = new DynamicGraph(graph);
+	int[] rank = new int[n];
+
+	// initial importance of every node; the simulations only read the graph
+	double[] priority = new double[n];
+	// witnesses are borrowed per node, so none outlive the build on pool
+	// threads
+	ScratchPool<Witness> witnesses = new ScratchPool<>(() -> new Witness(n), pool.getParallelism());
+	try {
+	    pool.submit(() -> IntStream.range(0, n).parallel().forEach(x -> {
+		Witness witness = witnesses.acquire();
+		try {
+		    priority[x] = g.priority(x, witness);
+		} finally {
+		    witnesses.release(witness);
+		}
+	    })).get();
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    throw new IllegalStateException("Interrupted while ordering nodes", e);
+	} catch (ExecutionException e) {
+	    throw new IllegalStateException("Node ordering failed", e.getCause());
+	}
+
+	IntMinHeap queue = new IntMinHeap(n);
+	for (int x = 0; x < n; x++) {
+	    queue.insert(x, priority[x]);
+	}
+	SearchEvents.endPreprocess(ordering, "ContractionHierarchy", "node ordering", n, graph.edgeCount());
+	Object contraction = SearchEvents.beginPreprocess();
+
+	Witness witness = new Witness(n);
+	EdgeBuffer up = new EdgeBuffer();
+	EdgeBuffer down = new EdgeBuffer();
+	int[] neighbors = new int[16];
+	int order = 0;
+	int shortcuts = 0;
+	while (!queue.isEmpty()) {
+	    int x = queue.poll();
+
+	    // lazy update: contract only if X is still the least important
+	    double p = g.priority(x, witness);
+	    if (!queue.isEmpty() && p > queue.peekKey()) {
+		queue.insert(x, p);
+		continue;
+	    }
+
+	    int count = g.neighbors(x, witness, neighbors);
+	    if (count > neighbors.length) {
+		neighbors = new int[count * 2];
+		count = g.neighbors(x, witness, neighbors);
+	    }
+
+	    rank[x] = order++;
+	    shortcuts += g.contract(x, witness, up, down);
+
+	    // neighbors lost an edge and may have gained shortcuts
+	    for (int i = 0; i < count; i++) {
+		int y = neighbors[i];
+		g.deleted[y]++;
+		g.level[y] = Math.max(g.level[y], g.level[x] + 1);
+		queue.changeKey(y, g.priority(y, witness));
+	    }
+	}
+
+	SearchEvents.endPreprocess(contraction, "ContractionHierarchy", "contraction", n, graph.edgeCount());
+	LOG.debug("Contracted: nodes={} edges={} shortcuts={} millis={}", n, graph.edgeCount(), shortcuts,
+		(System.nanoTime() - begin) / 1000000);
+	return new ContractionHierarchy<>(graph, rank, shortcuts, up, down);
+    }
+
+    public CsrGraph<T> graph() {
+	return graph;
+    }
+
+    /**
+     * @return the node's position in the contraction order, 0 first
+     */
+    public int rank(int node) {
+	return rank[node];
+    }
+
+    public int shortcutCount() {
+	return shortcutCount;
+    }
+
+    /**
+     * Adjacency lists of the not yet contracted nodes. Shortcuts are added as
+     * nodes are contracted, and a contracted node's edges move out to the
+     * hierarchy's edge buffers.
+     */
+    private static class DynamicGraph {
+
+	// contracted neighbor count and hierarchy depth, both raise importance
+	// so contraction spreads evenly over the graph
+	final int[] deleted;
+	final int[] level;
+
+	final int[][] outTo;
+	final double[][] outW;
+	final int[][] outMid;
+	final int[] outSize;
+
+	final int[][] inFrom;
+	final double[][] inW;
+	final int[][] inMid;
+	final int[] inSize;
+
+	DynamicGraph(CsrGraph<?> graph) {
+	    int n = graph.nodeCount();
+	    deleted = new int[n];
+	    level = new int[n];
+	    outTo = new int[n][];
+	    outW = new double[n][];
+	    outMid = new int[n][];
+	    outSize = new int[n];
+	    inFrom = new int[n][];
+	    inW = new double[n][];
+	    inMid = new int[n][];
+	    inSize = new int[n];
+	    for (int u = 0; u < n; u++) {
+		int out = Math.max(1, graph.edgeEnd(u) - graph.edgeStart(u));
+		outTo[u] = new int[out];
+		outW[u] = new double[out];
+		outMid[u] = new int[out];
+		int in = Math.max(1, graph.inEdgeEnd(u) - graph.inEdgeStart(u));
+		inFrom[u] = new int[in];
+		inW[u] = new double[in];
+		inMid[u] = new int[in];
+	    }
+	    for (int u = 0; u < n; u++) {
+		for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+		    int v = graph.target(e);
+		    if (v != u) {
+			addEdge(u, v, graph.weight(e), -1);
+		    }
+		}
+	    }
+	}
+
+	/**
+	 * Adds u -> v, or lowers the weight of an existing u -> v.
+	 */
+	void addEdge(int u, int v, double w, int mid) {
+	    for (int i = 0; i < outSize[u]; i++) {
+		if (outTo[u][i] == v) {
+		    if (w < outW[u][i]) {
+			outW[u][i] = w;
+			outMid[u][i] = mid;
+			for (int j = 0; j < inSize[v]; j++) {
+			    if (inFrom[v][j] == u) {
+				inW[v][j] = w;
+				inMid[v][j] = mid;
+			    }
+			}
+		    }
+		    return;
+		}
+	    }
+
+	    if (outSize[u] == outTo[u].length) {
+		int capacity = outSize[u] * 2;
+		outTo[u] = Arrays.copyOf(outTo[u], capacity);
+		outW[u] = Arrays.copyOf(outW[u], capacity);
+		outMid[u] = Arrays.copyOf(outMid[u], capacity);
+	    }
+	    outTo[u][outSize[u]] = v;
+	    outW[u][outSize[u]] = w;
+	    outMid[u][outSize[u]] = mid;
+	    outSize[u]++;
+
+	    if (inSize[v] == inFrom[v].length) {
+		int capacity = inSize[v] * 2;
+		inFrom[v] = Arrays.copyOf(inFrom[v], capacity);
+		inW[v] = Arrays.copyOf(inW[v], capacity);
+		inMid[v] = Arrays.copyOf(inMid[v], capacity);
+	    }
+	    inFrom[v][inSize[v]] = u;
+	    inW[v][inSize[v]] = w;
+	    inMid[v][inSize[v]] = mid;
+	    inSize[v]++;
+	}
+
+	/**
+	 * Importance of x: edge difference of contracting it, plus its contracted
+	 * neighbor count and level.
+	 */
+	double priority(int x, Witness w) {
+	    int removed = outSize[x] + inSize[x];
+	    int added = shortcuts(x, w, ESTIMATE_SETTLE_LIMIT, false);
+	    return 2 * (added - removed) + deleted[x] + level[x];
+	}
+
+	/**
+	 * Adds the shortcuts bypassing x, moves x's edges to the hierarchy and
+	 * unlinks x from its neighbors.
+	 *
+	 * @return the number of shortcuts added
+	 */
+	int contract(int x, Witness w, EdgeBuffer up, EdgeBuffer down) {
+	    int added = shortcuts(x, w, CONTRACT_SETTLE_LIMIT, true);
+
+	    // every remaining neighbor is contracted later, so ranks higher
+	    for (int i = 0; i < outSize[x]; i++) {
+		int v = outTo[x][i];
+		up.add(x, v, outW[x][i], outMid[x][i]);
+		remove(inFrom[v], inW[v], inMid[v], inSize, v, x);
+	    }
+	    for (int i = 0; i < inSize[x]; i++) {
+		int u = inFrom[x][i];
+		down.add(u, x, inW[x][i], inMid[x][i]);
+		remove(outTo[u], outW[u], outMid[u], outSize, u, x);
+	    }
+	    outSize[x] = 0;
+	    inSize[x] = 0;
+	    return added;
+	}
+
+	// swap-remove the entry for other from node's list
+	private static void remove(int[] others, double[] weights, int[] mids, int[] sizes, int node, int other) {
+	    int last = sizes[node] - 1;
+	    for (int i = 0; i <= last; i++) {
+		if (others[i] == other) {
+		    others[i] = others[last];
+		    weights[i] = weights[last];
+		    mids[i] = mids[last];
+		    sizes[node] = last;
+		    return;
+		}
+	    }
+	}
+
+	/**
+	 * Collects the distinct neighbors of x.
+	 *
+	 * @return the neighbor count, which may exceed the array length, in which
+	 *         case the array was not filled completely
+	 */
+	int neighbors(int x, Witness w, int[] out) {
+	    w.newMark();
+	    int count = 0;
+	    for (int i = 0; i < outSize[x] + inSize[x]; i++) {
+		int y = i < outSize[x] ? outTo[x][i] : inFrom[x][i - outSize[x]];
+		if (!w.isMarked(y)) {
+		    w.mark(y);
+		    if (count < out.length) {
+			out[count] = y;
+		    }
+		    count++;
+		}
+	    }
+	    return count;
+	}
+
+	/**
+	 * Finds the shortcuts needed to bypass x, adding them if asked to.
+	 */
+	private int shortcuts(int x, Witness w, int settleLimit, boolean add) {
+	    int count = 0;
+	    for (int i = 0; i < inSize[x]; i++) {
+		int u = inFrom[x][i];
+		double w1 = inW[x][i];
+
+		// mark the targets and the longest path through x to beat
+		w.newMark();
+		int targets = 0;
+		double maxDist = 0;
+		for (int j = 0; j < outSize[x]; j++) {
+		    int v = outTo[x][j];
+		    if (v != u) {
+			w.mark(v);
+			targets++;
+			maxDist = Math.max(maxDist, w1 + outW[x][j]);
+		    }
+		}
+		if (targets == 0) {
+		    continue;
+		}
+		witnessSearch(u, x, maxDist, targets, settleLimit, w);
+
+		for (int j = 0; j < outSize[x]; j++) {
+		    int v = outTo[x][j];
+		    if (v == u) {
+			continue;
+		    }
+		    double viaX = w1 + outW[x][j];
+		    if (w.ws.dist(v) > viaX) {
+			count++;
+			if (add) {
+			    addEdge(u, v, viaX, x);
+			}
+		    }
+		}
+	    }
+	    return count;
+	}
+
+	/**
+	 * Dijkstra from u over the remaining nodes other than x, until every marked
+	 * target is settled, maxDist is passed or the settle limit is hit.
+	 */
+	private void witnessSearch(int u, int x, double maxDist, int targets, int settleLimit, Witness w) {
+	    SearchWorkspace ws = w.ws;
+	    ws.reset();
+	    IntMinHeap heap = ws.heap();
+	    ws.update(u, 0.0, -1);
+	    heap.insert(u, 0.0);
+	    int settled = 0;
+	    while (!heap.isEmpty() && settled < settleLimit) {
+		int a = heap.poll();
+		double da = ws.dist(a);
+		if (da > maxDist) {
+		    break;
+		}
+		if (w.isMarked(a) && --targets == 0) {
+		    break;
+		}
+		settled++;
+		for (int i = 0; i < outSize[a]; i++) {
+		    int b = outTo[a][i];
+		    if (b == x) {
+			continue;
+		    }
+		    double alt = da + outW[a][i];
+		    if (alt < ws.dist(b)) {
+			ws.update(b, alt, a);
+			heap.insertOrDecrease(b, alt);
+		    }
+		}
+	    }
+	}
+    }
+
+    /**
+     * Growable edge list the hierarchy's CSR arrays are built from.
+     */
+    private static class EdgeBuffer {
+	int[] from = new int[64];
+	int[] to = new int[64];
+	double[] weight = new double[64];
+	int[] middle = new int[64];
+	int size = 0;
+
+	void add(int u, int v, double w, int mid) {
+	    if (size == from.length) {
+		int capacity = size * 2;
+		from = Arrays.copyOf(from, capacity);
+		to = Arrays.copyOf(to, capacity);
+		weight = Arrays.copyOf(weight, capacity);
+		middle = Arrays.copyOf(middle, capacity);
+	    }
+	    from[size] = u;
+	    to[size] = v;
+	    weight[size] = w;
+	    middle[size] = mid;
+	    size++;
+	}
+    }
+
+    /**
+     * Per-thread scratch space for witness searches: the search workspace and a
+     * stamped node marker for targets.
+     */
+    private static class Witness {
+	final SearchWorkspace ws;
+	final int[] marks;
+	int mark = 0;
+
+	Witness(int n) {
+	    ws = new SearchWorkspace(n);
+	    marks = new int[n];
+	}
+
+	void newMark() {
+	    mark++;
+	    if (mark == Integer.MAX_VALUE) {
+		Arrays.fill(marks, 0);
+		mark = 1;
+	    }
+	}
+
+	void mark(int node) {
+	    marks[node] = mark;
+	}
+
+	boolean isMarked(int node) {
+	    return marks[node] == mark;
+	}
+    }
+
+}
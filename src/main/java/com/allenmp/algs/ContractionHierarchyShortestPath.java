@@ -0,0 +1,215 @@
+package com.allenmp.algs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.graph.ValueGraph;
+
+/**
+ * Point-to-point queries on a {@link ContractionHierarchy}: a bidirectional
+ * Dijkstra where the forward search only follows edges up to higher ranked
+ * nodes and the backward search only follows edges down from them. Nodes
+ * reached more cheaply from a higher ranked neighbor are stalled and not
+ * expanded. Each side stops once its smallest key reaches the best meeting
+ * distance. {@link #path()} unpacks shortcuts back into original nodes.
+ *
+ * @param <T>
+ *            node type
+ */
+public class ContractionHierarchyShortestPath<T> extends AbstractCsrShortestPath<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ContractionHierarchyShortestPath.class);
+
+    private final ContractionHierarchy<T> ch;
+
+    // Backward search state; the forward search uses the inherited workspace.
+    // In both, prev holds the index of the hierarchy edge used to reach a node.
+    private final SearchWorkspace bws;
+
+    // node where the two searches met, -1 if the goal is unreachable
+    private int meet = -1;
+
+    public ContractionHierarchyShortestPath(ValueGraph<T, Double> graph) {
+	this(ContractionHierarchy.build(graph));
+    }
+
+    public ContractionHierarchyShortestPath(ContractionHierarchy<T> ch) {
+	this(ch, new SearchWorkspace(ch.graph().nodeCount()), new SearchWorkspace(ch.graph().nodeCount()));
+    }
+
+    public ContractionHierarchyShortestPath(ContractionHierarchy<T> ch, SearchWorkspace forward,
+	    SearchWorkspace backward) {
+	super(ch.graph(), forward);
+	if (forward == backward) {
+	    throw new IllegalArgumentException("Forward and backward searches need separate workspaces");
+	}
+	if (backward.capacity() < graph.nodeCount()) {
+	    throw new IllegalArgumentException(
+		    "Workspace capacity " + backward.capacity() + " is smaller than the graph: " + graph.nodeCount());
+	}
+	this.ch = ch;
+	this.bws = backward;
+    }
+
+    @Override
+    protected void search() {
+	IntMinHeap forward = ws.heap();
+	IntMinHeap backward = bws.heap();
+
+	bws.reset();
+	bws.update(goal, 0.0, -1);
+	forward.insert(start, 0.0);
+	backward.insert(goal, 0.0);
+
+	double mu = Double.POSITIVE_INFINITY;
+	meet = -1;
+
+	boolean forwardTurn = false;
+	while (true) {
+	    boolean forwardDone = forward.isEmpty() || forward.peekKey() >= mu;
+	    boolean backwardDone = backward.isEmpty() || backward.peekKey() >= mu;
+	    if (forwardDone && backwardDone) {
+		break;
+	    }
+	    forwardTurn = backwardDone || (!forwardDone && !forwardTurn);
+
+	    if (forwardTurn) {
+		int u = forward.poll();
+		double du = ws.dist(u);
+		if (bws.isClosed(u) && du + bws.dist(u) < mu) {
+		    mu = du + bws.dist(u);
+		    meet = u;
+		}
+		ws.close(u);
+		if (stalled(u, du, ws, ch.downOffsets, ch.downSources, ch.downWeights)) {
+		    continue;
+		}
+		settled++;
+		relaxations += ch.upOffsets[u + 1] - ch.upOffsets[u];
+		for (int e = ch.upOffsets[u], end = ch.upOffsets[u + 1]; e < end; e++) {
+		    int v = ch.upTargets[e];
+		    double alternate = du + ch.upWeights[e];
+		    if (alternate < ws.dist(v)) {
+			update(v, alternate, e);
+			push(forward, v, alternate, 0.0);
+		    }
+		}
+	    } else {
+		int u = backward.poll();
+		double du = bws.dist(u);
+		if (ws.isClosed(u) && du + ws.dist(u) < mu) {
+		    mu = du + ws.dist(u);
+		    meet = u;
+		}
+		bws.close(u);
+		if (stalled(u, du, bws, ch.upOffsets, ch.upTargets, ch.upWeights)) {
+		    continue;
+		}
+		settled++;
+		relaxations += ch.downOffsets[u + 1] - ch.downOffsets[u];
+		for (int e = ch.downOffsets[u], end = ch.downOffsets[u + 1]; e < end; e++) {
+		    int v = ch.downSources[e];
+		    double alternate = du + ch.downWeights[e];
+		    if (alternate < bws.dist(v)) {
+			if (bws.prev(v) < 0) {
+			    reached++;
+			}
+			bws.update(v, alternate, e);
+			push(backward, v, alternate, 0.0);
+		    }
+		}
+	    }
+	}
+
+	LOG.trace("Meet: node={} mu={}", meet, mu);
+	if (meet >= 0) {
+	    // the inherited pathLength() reads the forward workspace
+	    ws.update(goal, mu, ws.prev(goal));
+	}
+    }
+
+    /**
+     * Stall-on-demand: U's tentative distance is not shortest if a higher ranked
+     * neighbor, reached by this same search, leads to U more cheaply.
+     */
+    private static boolean stalled(int u, double du, SearchWorkspace side, int[] offsets, int[] others,
+	    double[] weights) {
+	for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+	    int x = others[e];
+	    if (side.isReached(x) && side.dist(x) + weights[e] < du) {
+		return true;
+	    }
+	}
+	return false;
+    }
+
+    @Override
+    public List<T> path() {
+	if (goal == start) {
+	    return Arrays.asList(graph.node(start), graph.node(start));
+	}
+
+	calculate();
+
+	List<T> path = new ArrayList<>();
+	if (meet < 0) {
+	    // goal is unreachable
+	    return path;
+	}
+
+	Object event = SearchEvents.beginUnpack();
+
+	// hierarchy edges from start up to meet, collected backward
+	List<Integer> upEdges = new ArrayList<>();
+	for (int n = meet; n != start;) {
+	    int e = ws.prev(n);
+	    upEdges.add(e);
+	    n = ch.upSources[e];
+	}
+
+	path.add(graph.node(start));
+	for (int i = upEdges.size() - 1; i >= 0; i--) {
+	    int e = upEdges.get(i);
+	    unpack(ch.upSources[e], ch.upTargets[e], ch.upMiddle[e], path);
+	}
+	// hierarchy edges from meet down to goal
+	for (int n = meet; n != goal;) {
+	    int e = bws.prev(n);
+	    int lower = ch.downTargets[e];
+	    unpack(n, lower, ch.downMiddle[e], path);
+	    n = lower;
+	}
+
+	unpacked(event, path);
+	LOG.debug("Path: {}", path);
+	return path;
+    }
+
+    /**
+     * Appends the original nodes after {@code from} on the edge from -> to.
+     */
+    private void unpack(int from, int to, int middle, List<T> path) {
+	if (middle < 0) {
+	    path.add(graph.node(to));
+	    return;
+	}
+	// from -> middle is stored at middle as a down edge, middle -> to as an
+	// up edge, since middle was contracted before both
+	unpack(from, middle, middleOf(ch.downOffsets, ch.downSources, ch.downMiddle, middle, from), path);
+	unpack(middle, to, middleOf(ch.upOffsets, ch.upTargets, ch.upMiddle, middle, to), path);
+    }
+
+    private static int middleOf(int[] offsets, int[] others, int[] middles, int node, int other) {
+	for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+	    if (others[e] == other) {
+		return middles[e];
+	    }
+	}
+	throw new IllegalStateException("Missing hierarchy edge between " + node + " and " + other);
+    }
+
+}
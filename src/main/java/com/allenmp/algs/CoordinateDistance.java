@@ -0,0 +1,25 @@
+package com.allenmp.algs;
+
+/**
+ * Straight-line distance between the nodes of a {@link CsrGraph} whose
+ * coordinates are kept in one flat array, as read by
+ * {@link GraphLoader#readDimacsCoordinates(java.nio.file.Path, CsrGraph)}.
+ * The distance is multiplied by a scale to turn coordinate units into edge
+ * weight units; it stays an admissible A* heuristic as long as no edge weighs
+ * less than its scaled length.
+ *
+ * @param <T>
+ *            node type
+ */
+public class CoordinateDistance<T> extends CoordinateHeuristic<T> {
+
+    /**
+     * @param coordinates
+     *            x and y of node index i at {@code [2 * i]} and
+     *            {@code [2 * i + 1]}
+     */
+    public CoordinateDistance(CsrGraph<T> graph, double[] coordinates, double scale) {
+	super(CoordinateStore.ofInterleaved(graph, coordinates), Metric.EUCLIDEAN, scale);
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.allenmp.algs;
+
+import java.util.Objects;
+
+/**
+ * Coordinate distances between the nodes of a {@link CoordinateStore}, scaled
+ * to edge weight units. Each metric is an admissible A* heuristic as long as
+ * no edge weighs less than the scaled distance between its ends: Euclidean
+ * for straight-line movement, Manhattan for 4-connected grids, octile for
+ * 8-connected grids with diagonals of length sqrt(2), and Chebyshev for
+ * 8-connected grids with diagonals of length 1.
+ * <p>
+ * {@link #fromNeighbors(int, int, double[])} computes a whole neighborhood in
+ * one branch-free loop per metric over the flat coordinate arrays, which is
+ * what {@link CsrAstarShortestPath} calls on each expansion.
+ *
+ * @param <T>
+ *            node type
+ */
+public class CoordinateHeuristic<T> implements IndexedDistanceFunction<T> {
+
+    public enum Metric {
+	EUCLIDEAN, MANHATTAN, OCTILE, CHEBYSHEV
+    }
+
+    private static final double SQRT2_MINUS_1 = Math.sqrt(2) - 1;
+
+    private final CoordinateStore<T> store;
+    private final Metric metric;
+    private final double scale;
+
+    // the axes of a 2-dimensional store, null otherwise
+    private final double[] x;
+    private final double[] y;
+
+    public CoordinateHeuristic(CoordinateStore<T> store, Metric metric) {
+	this(store, metric, 1.0);
+    }
+
+    public CoordinateHeuristic(CoordinateStore<T> store, Metric metric, double scale) {
+	super();
+	this.store = Objects.requireNonNull(store);
+	this.metric = Objects.requireNonNull(metric);
+	if (!(scale >= 0) || Double.isInfinite(scale)) {
+	    throw new IllegalArgumentException("Scale must be non-negative and finite: " + scale);
+	}
+	this.scale = scale;
+	boolean planar = store.dimensions() == 2;
+	if (metric == Metric.OCTILE && !planar) {
+	    throw new IllegalArgumentException("Octile distance needs 2 dimensions: " + store.dimensions());
+	}
+	this.x = planar ? store.axis(0) : null;
+	this.y = planar ? store.axis(1) : null;
+    }
+
+    public static <T> CoordinateHeuristic<T> euclidean(CoordinateStore<T> store) {
+	return new CoordinateHeuristic<>(store, Metric.EUCLIDEAN);
+    }
+
+    public static <T> CoordinateHeuristic<T> manhattan(CoordinateStore<T> store) {
+	return new CoordinateHeuristic<>(store, Metric.MANHATTAN);
+    }
+
+    public static <T> CoordinateHeuristic<T> octile(CoordinateStore<T> store) {
+	return new CoordinateHeuristic<>(store, Metric.OCTILE);
+    }
+
+    public static <T> CoordinateHeuristic<T> chebyshev(CoordinateStore<T> store) {
+	return new CoordinateHeuristic<>(store, Metric.CHEBYSHEV);
+    }
+
+    public Metric metric() {
+	return metric;
+    }
+
+    @Override
+    public CsrGraph<T> graph() {
+	return store.graph();
+    }
+
+    @Override
+    public double between(T o1, T o2) {
+	return between(index(o1), index(o2));
+    }
+
+    @Override
+    public double between(int u, int t) {
+	if (x != null) {
+	    return scale * planar(x[u] - x[t], y[u] - y[t]);
+	}
+	double d = 0;
+	for (int a = 0; a < store.dimensions(); a++) {
+	    double delta = Math.abs(store.coordinate(u, a) - store.coordinate(t, a));
+	    switch (metric) {
+	    case EUCLIDEAN:
+		d += delta * delta;
+		break;
+	    case MANHATTAN:
+		d += delta;
+		break;
+	    default:
+		d = Math.max(d, delta);
+	    }
+	}
+	return scale * (metric == Metric.EUCLIDEAN ? Math.sqrt(d) : d);
+    }
+
+    @Override
+    public void fromNeighbors(int u, int t, double[] out) {
+	if (x == null) {
+	    IndexedDistanceFunction.super.fromNeighbors(u, t, out);
+	    return;
+	}
+	CsrGraph<T> graph = store.graph();
+	int start = graph.edgeStart(u);
+	int end = graph.edgeEnd(u);
+	double tx = x[t];
+	double ty = y[t];
+	// one loop per metric so none of them branches per neighbor
+	switch (metric) {
+	case EUCLIDEAN:
+	    for (int e = start; e < end; e++) {
+		int v = graph.target(e);
+		double dx = x[v] - tx;
+		double dy = y[v] - ty;
+		out[e - start] = scale * Math.sqrt(dx * dx + dy * dy);
+	    }
+	    break;
+	case MANHATTAN:
+	    for (int e = start; e < end; e++) {
+		int v = graph.target(e);
+		out[e - start] = scale * (Math.abs(x[v] - tx) + Math.abs(y[v] - ty));
+	    }
+	    break;
+	case OCTILE:
+	    for (int e = start; e < end; e++) {
+		int v = graph.target(e);
+		double dx = Math.abs(x[v] - tx);
+		double dy = Math.abs(y[v] - ty);
+		out[e - start] = scale * (Math.max(dx, dy) + SQRT2_MINUS_1 * Math.min(dx, dy));
+	    }
+	    break;
+	case CHEBYSHEV:
+	    for (int e = start; e < end; e++) {
+		int v = graph.target(e);
+		out[e - start] = scale * Math.max(Math.abs(x[v] - tx), Math.abs(y[v] - ty));
+	    }
+	    break;
+	}
+    }
+
+    private double planar(double dx, double dy) {
+	dx = Math.abs(dx);
+	dy = Math.abs(dy);
+	switch (metric) {
+	case EUCLIDEAN:
+	    return Math.sqrt(dx * dx + dy * dy);
+	case MANHATTAN:
+	    return dx + dy;
+	case OCTILE:
+	    return Math.max(dx, dy) + SQRT2_MINUS_1 * Math.min(dx, dy);
+	default:
+	    return Math.max(dx, dy);
+	}
+    }
+
+    private int index(T node) {
+	int index = store.graph().indexOf(node);
+	if (index < 0) {
+	    throw new IllegalArgumentException("Graph does not contain node: " + node);
+	}
+	return index;
+    }
+
+}
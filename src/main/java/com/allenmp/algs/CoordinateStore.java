@@ -0,0 +1,116 @@
+package com.allenmp.algs;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Node coordinates of a {@link CsrGraph} kept as one primitive array per axis,
+ * indexed by node index, for the {@link CoordinateHeuristic}s. Reading a
+ * coordinate is an array load instead of a map lookup and a dereference per
+ * node, and a loop over many nodes reads each axis sequentially.
+ *
+ * @param <T>
+ *            node type
+ */
+public final class CoordinateStore<T> {
+
+    private final CsrGraph<T> graph;
+
+    // axes[a][i] is coordinate a of node index i
+    private final double[][] axes;
+
+    private CoordinateStore(CsrGraph<T> graph, double[][] axes) {
+	super();
+	this.graph = graph;
+	this.axes = axes;
+    }
+
+    /**
+     * Copies the coordinates of every node of the graph.
+     *
+     * @param coordinates
+     *            coordinates of a node, the same number for every node
+     */
+    public static <T> CoordinateStore<T> of(CsrGraph<T> graph, Function<? super T, double[]> coordinates) {
+	Objects.requireNonNull(graph);
+	Objects.requireNonNull(coordinates);
+	int n = graph.nodeCount();
+	double[][] axes = null;
+	for (int i = 0; i < n; i++) {
+	    T node = graph.node(i);
+	    double[] c = coordinates.apply(node);
+	    if (c == null) {
+		throw new IllegalArgumentException("Node has no coordinates: " + node);
+	    }
+	    if (axes == null) {
+		axes = new double[c.length][n];
+	    } else if (c.length != axes.length) {
+		throw new IllegalArgumentException("Node coords have different dimensionality (" + c.length + " vs "
+			+ axes.length + "): " + node);
+	    }
+	    for (int a = 0; a < c.length; a++) {
+		axes[a][i] = c[a];
+	    }
+	}
+	return new CoordinateStore<>(graph, axes == null ? new double[0][0] : axes);
+    }
+
+    /**
+     * @param coordinates
+     *            x and y of node index i at {@code [2 * i]} and
+     *            {@code [2 * i + 1]}, as read by
+     *            {@link GraphLoader#readDimacsCoordinates(java.nio.file.Path, CsrGraph)}
+     */
+    public static <T> CoordinateStore<T> ofInterleaved(CsrGraph<T> graph, double[] coordinates) {
+	Objects.requireNonNull(graph);
+	Objects.requireNonNull(coordinates);
+	int n = graph.nodeCount();
+	if (coordinates.length != 2 * n) {
+	    throw new IllegalArgumentException("Expected " + 2 * n + " coordinates: " + coordinates.length);
+	}
+	double[] x = new double[n];
+	double[] y = new double[n];
+	for (int i = 0; i < n; i++) {
+	    x[i] = coordinates[2 * i];
+	    y[i] = coordinates[2 * i + 1];
+	}
+	return new CoordinateStore<>(graph, new double[][] { x, y });
+    }
+
+    /**
+     * Copies the coordinates out of a graph file.
+     */
+    public static CoordinateStore<Integer> of(MappedCsrGraph graph) {
+	if (!graph.hasCoordinates()) {
+	    throw new IllegalArgumentException("Graph file has no coordinates");
+	}
+	int n = graph.nodeCount();
+	double[] x = new double[n];
+	double[] y = new double[n];
+	for (int i = 0; i < n; i++) {
+	    x[i] = graph.x(i);
+	    y[i] = graph.y(i);
+	}
+	return new CoordinateStore<>(graph, new double[][] { x, y });
+    }
+
+    public CsrGraph<T> graph() {
+	return graph;
+    }
+
+    public int dimensions() {
+	return axes.length;
+    }
+
+    public double coordinate(int node, int axis) {
+	return axes[axis][node];
+    }
+
+    /**
+     * @return the live array of one coordinate of every node index
+     */
+    double[] axis(int axis) {
+	return axes[axis];
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.allenmp.algs;
+
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.graph.ValueGraph;
+
+/**
+ * {@link AstarShortestPath} on a {@link CsrGraph}. The open set is an indexed
+ * heap keyed by fScore, ties broken toward the smaller heuristic, and the
+ * closed set is an epoch stamp per node index in the {@link SearchWorkspace}.
+ * <p>
+ * Each node's estimate is computed at most once per query and kept in the
+ * workspace for later relaxations. An {@link IndexedDistanceFunction} on the
+ * same graph, such as a {@link CoordinateHeuristic} or
+ * {@link LandmarkDistance}, is asked for the estimates of all neighbors of a
+ * node in one call, the first time one of them improves without an estimate.
+ * Any other heuristic is called per node.
+ *
+ * @param <T>
+ *            node type
+ */
+public class CsrAstarShortestPath<T> extends AbstractCsrShortestPath<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CsrAstarShortestPath.class);
+
+    private final DistanceFunction<T> heuristic;
+
+    // the heuristic if it works on this graph's indices, otherwise null
+    private final IndexedDistanceFunction<T> indexed;
+
+    // estimates of the neighbors of the node being expanded
+    private double[] neighborEstimates = new double[16];
+
+    public CsrAstarShortestPath(ValueGraph<T, Double> graph, DistanceFunction<T> heuristic) {
+	this(CsrGraph.compile(graph), heuristic);
+    }
+
+    public CsrAstarShortestPath(CsrGraph<T> graph, DistanceFunction<T> heuristic) {
+	this(graph, heuristic, new SearchWorkspace(graph.nodeCount()));
+    }
+
+    public CsrAstarShortestPath(CsrGraph<T> graph, DistanceFunction<T> heuristic, SearchWorkspace ws) {
+	super(graph, ws);
+	this.heuristic = Objects.requireNonNull(heuristic);
+	IndexedDistanceFunction<T> indexed = heuristic instanceof IndexedDistanceFunction
+		? (IndexedDistanceFunction<T>) heuristic : null;
+	this.indexed = indexed != null && indexed.graph() == graph ? indexed : null;
+    }
+
+    @Override
+    protected void search() {
+	T goalNode = graph.node(goal);
+	IntMinHeap openSet = ws.heap();
+
+	// source-goal distance is entirely heuristic
+	double startH = estimate(start, goalNode);
+	openSet.insert(start, startH, startH);
+
+	while (!openSet.isEmpty()) {
+	    // open node with smallest fScore
+	    int u = openSet.poll();
+	    ws.close(u);
+	    settled++;
+
+	    // terminate early if we reached the goal
+	    if (u == goal) {
+		LOG.trace("Terminating");
+		return;
+	    }
+
+	    double gScore = ws.dist(u);
+	    int first = graph.edgeStart(u);
+	    int degree = graph.edgeEnd(u) - first;
+	    relaxations += degree;
+	    boolean batched = indexed == null;
+	    for (int e = first, end = first + degree; e < end; e++) {
+		int v = graph.target(e);
+		if (ws.isClosed(v)) {
+		    continue;
+		}
+
+		// if there's a shorter path to V, update G and F scores
+		double newGScore = gScore + graph.weight(e);
+		if (newGScore < ws.dist(v)) {
+		    update(v, newGScore, u);
+		    if (!batched && !ws.hasEstimate(v)) {
+			estimateNeighbors(u, first, degree);
+			batched = true;
+		    }
+		    double h = estimate(v, goalNode);
+		    push(openSet, v, newGScore + h, h);
+		}
+	    }
+	}
+    }
+
+    /**
+     * Keeps the estimates of the neighbors of U that have none yet, from one
+     * call to the indexed heuristic.
+     */
+    private void estimateNeighbors(int u, int first, int degree) {
+	if (degree > neighborEstimates.length) {
+	    neighborEstimates = new double[Math.max(degree, 2 * neighborEstimates.length)];
+	}
+	indexed.fromNeighbors(u, goal, neighborEstimates);
+	for (int e = first, end = first + degree; e < end; e++) {
+	    int v = graph.target(e);
+	    if (!ws.hasEstimate(v)) {
+		ws.setEstimate(v, neighborEstimates[e - first]);
+		heuristicEvaluations++;
+	    }
+	}
+    }
+
+    /**
+     * @return the heuristic from the node to the goal, computed once per query
+     */
+    private double estimate(int node, T goalNode) {
+	if (ws.hasEstimate(node)) {
+	    return ws.estimate(node);
+	}
+	double h = indexed != null ? indexed.between(node, goal) : heuristic.between(graph.node(node), goalNode);
+	heuristicEvaluations++;
+	ws.setEstimate(node, h);
+	return h;
+    }
+
+}
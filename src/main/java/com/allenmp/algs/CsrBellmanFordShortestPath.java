@@ -0,0 +1,223 @@
+package com.allenmp.algs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.graph.ValueGraph;
+
+/**
+ * {@link BellmanFordShortestPath} on a {@link CsrGraph}, relaxing the CSR edge
+ * arrays directly. Undirected edges are already stored in both directions.
+ * <p>
+ * {@link Mode#PASSES} relaxes every edge once per pass and stops after the
+ * first pass that changes nothing. {@link Mode#QUEUE} (SPFA) only relaxes the
+ * edges of nodes whose distance changed, which is far less work on sparse
+ * graphs with few negative edges. Both throw a {@link NegativeCycleException}
+ * holding the cycle, found by walking the predecessors, when one is reachable
+ * from the start.
+ *
+ * @param <T>
+ *            node type
+ */
+public class CsrBellmanFordShortestPath<T> extends AbstractCsrShortestPath<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CsrBellmanFordShortestPath.class);
+
+    public enum Mode {
+	PASSES, QUEUE
+    }
+
+    private final Mode mode;
+
+    // FIFO of nodes to relax in QUEUE mode, each node queued at most once, and
+    // the number of edges on each queued node's current path
+    private final int[] queue;
+    private final boolean[] queued;
+    private final int[] hops;
+
+    public CsrBellmanFordShortestPath(ValueGraph<T, Double> graph) {
+	this(CsrGraph.compile(graph));
+    }
+
+    public CsrBellmanFordShortestPath(CsrGraph<T> graph) {
+	this(graph, Mode.QUEUE, new SearchWorkspace(graph.nodeCount()));
+    }
+
+    public CsrBellmanFordShortestPath(CsrGraph<T> graph, Mode mode) {
+	this(graph, mode, new SearchWorkspace(graph.nodeCount()));
+    }
+
+    public CsrBellmanFordShortestPath(CsrGraph<T> graph, Mode mode, SearchWorkspace ws) {
+	super(graph, ws);
+	this.mode = Objects.requireNonNull(mode);
+	checkGraph();
+	int n = mode == Mode.QUEUE ? graph.nodeCount() : 0;
+	this.queue = new int[n];
+	this.queued = new boolean[n];
+	this.hops = new int[n];
+    }
+
+    private void checkGraph() {
+	// Undirected graphs can't have any negative edge weights
+	if (!graph.isDirected()) {
+	    for (int u = 0; u < graph.nodeCount(); u++) {
+		for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+		    if (graph.weight(e) < 0) {
+			String msg = String.format(
+				"Undirected graphs can't have any negative edge weights: U=%1$s V=%2$s weight=%3$f",
+				graph.node(u), graph.node(graph.target(e)), graph.weight(e));
+			throw new IllegalArgumentException(msg);
+		    }
+		}
+	    }
+	}
+    }
+
+    @Override
+    protected void search() {
+	if (mode == Mode.QUEUE) {
+	    searchQueue();
+	} else {
+	    searchPasses();
+	}
+    }
+
+    private void searchPasses() {
+	int nodeCount = graph.nodeCount();
+	// without negative cycles pass V - 1 changes nothing
+	for (int i = 0; i < nodeCount; i++) {
+	    int changed = -1;
+	    for (int u = 0; u < nodeCount; u++) {
+		double du = ws.dist(u);
+		if (du == Double.POSITIVE_INFINITY) {
+		    continue;
+		}
+		settled++;
+		relaxations += graph.edgeEnd(u) - graph.edgeStart(u);
+		for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+		    int v = graph.target(e);
+		    double alt = du + graph.weight(e);
+		    if (alt < ws.dist(v)) {
+			update(v, alt, u);
+			changed = v;
+		    }
+		}
+	    }
+	    if (changed < 0) {
+		LOG.trace("Converged: passes={}", i + 1);
+		return;
+	    }
+	    if (i == nodeCount - 1) {
+		throw negativeCycle(changed);
+	    }
+	}
+    }
+
+    private void searchQueue() {
+	queue[0] = start;
+	queued[start] = true;
+	hops[start] = 0;
+	drainQueue(1);
+    }
+
+    /**
+     * Distances from a virtual source with a zero-weight edge to every node,
+     * i.e. the largest potentials {@code h} with
+     * {@code h(v) <= h(u) + w(u, v)} for every edge. Needs {@link Mode#QUEUE}.
+     *
+     * @throws NegativeCycleException
+     *             if the graph has a negative cycle anywhere
+     */
+    double[] potentials() {
+	if (mode != Mode.QUEUE) {
+	    throw new IllegalStateException("Potentials need mode " + Mode.QUEUE);
+	}
+	int nodeCount = graph.nodeCount();
+	ws.reset();
+	for (int v = 0; v < nodeCount; v++) {
+	    ws.update(v, 0.0, -1);
+	    queue[v] = v;
+	    queued[v] = true;
+	    hops[v] = 0;
+	}
+	drainQueue(nodeCount);
+
+	double[] h = new double[nodeCount];
+	for (int v = 0; v < nodeCount; v++) {
+	    h[v] = ws.dist(v);
+	}
+	return h;
+    }
+
+    // runs SPFA on the first size nodes of the queue
+    private void drainQueue(int size) {
+	int nodeCount = graph.nodeCount();
+	int head = 0;
+	try {
+	    while (size > 0) {
+		int u = queue[head];
+		head = head + 1 == nodeCount ? 0 : head + 1;
+		size--;
+		queued[u] = false;
+		settled++;
+		relaxations += graph.edgeEnd(u) - graph.edgeStart(u);
+
+		double du = ws.dist(u);
+		for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+		    int v = graph.target(e);
+		    double alt = du + graph.weight(e);
+		    if (alt < ws.dist(v)) {
+			update(v, alt, u);
+			// a shortest path has fewer than V edges
+			hops[v] = hops[u] + 1;
+			if (hops[v] >= nodeCount) {
+			    throw negativeCycle(v);
+			}
+			if (queued[v]) {
+			    decreaseKeys++;
+			} else {
+			    int tail = head + size < nodeCount ? head + size : head + size - nodeCount;
+			    queue[tail] = v;
+			    queued[v] = true;
+			    size++;
+			}
+		    }
+		}
+	    }
+	} finally {
+	    // leave the flags clear if a cycle cut the search short
+	    for (; size > 0; size--) {
+		queued[queue[head]] = false;
+		head = head + 1 == nodeCount ? 0 : head + 1;
+	    }
+	}
+    }
+
+    /**
+     * Walks V predecessors back from a node whose distance kept dropping, which
+     * ends on the cycle, then collects the cycle.
+     */
+    private NegativeCycleException negativeCycle(int node) {
+	int x = node;
+	for (int i = 0; i < graph.nodeCount() && x >= 0; i++) {
+	    x = ws.prev(x);
+	}
+	List<T> cycle = new ArrayList<>();
+	if (x >= 0) {
+	    int y = x;
+	    do {
+		cycle.add(graph.node(y));
+		y = ws.prev(y);
+	    } while (y != x && y >= 0);
+	    Collections.reverse(cycle);
+	}
+	LOG.debug("NegativeCycle: {}", cycle);
+	return new NegativeCycleException(cycle);
+    }
+
+}
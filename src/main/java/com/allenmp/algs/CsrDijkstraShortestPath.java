@@ -0,0 +1,92 @@
+package com.allenmp.algs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.graph.ValueGraph;
+
+/**
+ * {@link DijkstraShortestPath} on a {@link CsrGraph}: primitive distances and
+ * an indexed heap instead of hash maps and boxed weights. Like it, a goal
+ * change with the same start resumes the previous search.
+ *
+ * @param <T>
+ *            node type
+ */
+public class CsrDijkstraShortestPath<T> extends AbstractCsrShortestPath<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CsrDijkstraShortestPath.class);
+
+    // goal the last search stopped at without expanding it, -1 if none
+    private int unexpanded = -1;
+
+    public CsrDijkstraShortestPath(ValueGraph<T, Double> graph) {
+	this(CsrGraph.compile(graph));
+    }
+
+    public CsrDijkstraShortestPath(CsrGraph<T> graph) {
+	this(graph, new SearchWorkspace(graph.nodeCount()));
+    }
+
+    public CsrDijkstraShortestPath(CsrGraph<T> graph, SearchWorkspace ws) {
+	super(graph, ws);
+    }
+
+    @Override
+    protected void search() {
+	ws.heap().insert(start, 0.0);
+	unexpanded = -1;
+	run();
+    }
+
+    @Override
+    protected boolean resume() {
+	IntMinHeap unvisited = ws.heap();
+	if (ws.isReached(goal) && !unvisited.contains(goal)) {
+	    LOG.trace("AlreadySettled: goal={}", goal);
+	    return true;
+	}
+	if (unexpanded >= 0) {
+	    relax(unexpanded);
+	    unexpanded = -1;
+	}
+	run();
+	return true;
+    }
+
+    private void run() {
+	IntMinHeap unvisited = ws.heap();
+	while (!unvisited.isEmpty()) {
+	    // "visit" next unvisited node
+	    int u = unvisited.poll();
+	    settled++;
+
+	    // terminate early if we reached the goal
+	    if (u == goal) {
+		LOG.trace("Terminating");
+		unexpanded = u;
+		break;
+	    }
+
+	    relax(u);
+	}
+    }
+
+    // shortest (cumulative) path to each of U's neighbors
+    private void relax(int u) {
+	IntMinHeap unvisited = ws.heap();
+	double du = ws.dist(u);
+	int first = graph.edgeStart(u);
+	int end = graph.edgeEnd(u);
+	relaxations += end - first;
+	for (int e = first; e < end; e++) {
+	    int v = graph.target(e);
+	    double alternate = du + graph.weight(e);
+	    if (alternate < ws.dist(v)) {
+		update(v, alternate, u);
+		push(unvisited, v, alternate, 0.0);
+	    }
+	}
+    }
+
+}
@@ -0,0 +1,243 @@
+package com.allenmp.algs;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.graph.ValueGraph;
+
+/**
+ * Immutable compressed-sparse-row copy of a {@link ValueGraph}, built once with
+ * {@link #compile(ValueGraph)} and shared by the int-indexed algorithms.
+ * <p>
+ * Every node is assigned an index in {@code [0, nodeCount())}. The outgoing
+ * edges of node {@code u} are the edge indices
+ * {@code [edgeStart(u), edgeEnd(u))}, and {@link #target(int)} /
+ * {@link #weight(int)} give the other end and the weight of each edge.
+ * Undirected edges are stored once in each direction. The incoming side
+ * ({@link #inEdgeStart(int)} etc.) is kept as well so searches can run
+ * backward on directed graphs. {@link MappedCsrGraph} serves the same
+ * accessors straight from a memory-mapped file.
+ *
+ * @param <T>
+ *            node type of the source graph
+ */
+public class CsrGraph<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CsrGraph.class);
+
+    private final boolean directed;
+
+    // index -> node and node -> index, both null when the nodes are the ints
+    // firstId..firstId + nodeCount - 1
+    private final Object[] nodes;
+    private final Map<T, Integer> nodeToIndex;
+    private final int nodeCount;
+    private final int firstId;
+
+    // outgoing edges of u are [offsets[u], offsets[u + 1])
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+
+    // incoming edges of v are [inOffsets[v], inOffsets[v + 1]), shared with
+    // the outgoing arrays for undirected graphs
+    private final int[] inOffsets;
+    private final int[] sources;
+    private final double[] inWeights;
+
+    CsrGraph(boolean directed, Object[] nodes, Map<T, Integer> nodeToIndex, int[] offsets, int[] targets,
+	    double[] weights) {
+	this(directed, nodes, nodeToIndex, 0, offsets, targets, weights);
+    }
+
+    private CsrGraph(boolean directed, Object[] nodes, Map<T, Integer> nodeToIndex, int firstId, int[] offsets,
+	    int[] targets, double[] weights) {
+	super();
+	this.directed = directed;
+	this.nodes = nodes;
+	this.nodeToIndex = nodeToIndex;
+	this.nodeCount = offsets.length - 1;
+	this.firstId = firstId;
+	this.offsets = offsets;
+	this.targets = targets;
+	this.weights = weights;
+
+	if (directed) {
+	    int n = nodeCount;
+	    int m = targets.length;
+	    inOffsets = new int[n + 1];
+	    sources = new int[m];
+	    inWeights = new double[m];
+
+	    // count in-degrees, prefix sum, then fill
+	    for (int e = 0; e < m; e++) {
+		inOffsets[targets[e] + 1]++;
+	    }
+	    for (int v = 0; v < n; v++) {
+		inOffsets[v + 1] += inOffsets[v];
+	    }
+	    int[] fill = new int[n];
+	    for (int u = 0; u < n; u++) {
+		for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+		    int v = targets[e];
+		    int slot = inOffsets[v] + fill[v]++;
+		    sources[slot] = u;
+		    inWeights[slot] = weights[e];
+		}
+	    }
+	} else {
+	    inOffsets = offsets;
+	    sources = targets;
+	    inWeights = weights;
+	}
+    }
+
+    /**
+     * For subclasses that keep their own storage and override every accessor.
+     */
+    CsrGraph(boolean directed) {
+	super();
+	this.directed = directed;
+	this.nodes = null;
+	this.nodeToIndex = null;
+	this.nodeCount = 0;
+	this.firstId = 0;
+	this.offsets = null;
+	this.targets = null;
+	this.weights = null;
+	this.inOffsets = null;
+	this.sources = null;
+	this.inWeights = null;
+    }
+
+    /**
+     * Copies a graph into CSR form. The graph is only read, so later changes to
+     * a mutable graph are not reflected in the result.
+     */
+    public static <T> CsrGraph<T> compile(ValueGraph<T, Double> graph) {
+	Objects.requireNonNull(graph);
+	Object event = SearchEvents.beginPreprocess();
+
+	int n = graph.nodes().size();
+	Object[] nodes = new Object[n];
+	Map<T, Integer> nodeToIndex = new HashMap<>(n * 2);
+	int i = 0;
+	for (T node : graph.nodes()) {
+	    nodes[i] = node;
+	    nodeToIndex.put(node, i);
+	    i++;
+	}
+
+	// undirected edges are stored in both directions
+	int[] offsets = new int[n + 1];
+	for (int u = 0; u < n; u++) {
+	    @SuppressWarnings("unchecked")
+	    T node = (T) nodes[u];
+	    offsets[u + 1] = offsets[u] + graph.successors(node).size();
+	}
+
+	int m = offsets[n];
+	int[] targets = new int[m];
+	double[] weights = new double[m];
+	for (int u = 0; u < n; u++) {
+	    @SuppressWarnings("unchecked")
+	    T node = (T) nodes[u];
+	    int e = offsets[u];
+	    for (T succ : graph.successors(node)) {
+		targets[e] = nodeToIndex.get(succ);
+		weights[e] = graph.edgeValueOrDefault(node, succ, Double.POSITIVE_INFINITY);
+		e++;
+	    }
+	}
+
+	SearchEvents.endPreprocess(event, "CsrGraph", "compile", n, m);
+	LOG.debug("Compiled: nodes={} edges={} directed={}", n, m, graph.isDirected());
+	return new CsrGraph<>(graph.isDirected(), nodes, nodeToIndex, offsets, targets, weights);
+    }
+
+    /**
+     * Wraps CSR arrays whose nodes are the ints {@code firstId + index}, so no
+     * node objects or index map are kept.
+     */
+    static CsrGraph<Integer> ofIds(boolean directed, int firstId, int[] offsets, int[] targets, double[] weights) {
+	return new CsrGraph<>(directed, null, null, firstId, offsets, targets, weights);
+    }
+
+    public boolean isDirected() {
+	return directed;
+    }
+
+    public int nodeCount() {
+	return nodeCount;
+    }
+
+    /**
+     * Number of stored (directed) edges; undirected edges count twice.
+     */
+    public int edgeCount() {
+	return targets.length;
+    }
+
+    /**
+     * @return the index of the node, or -1 if it is not in the graph
+     */
+    public int indexOf(T node) {
+	if (nodeToIndex == null) {
+	    if (!(node instanceof Integer)) {
+		return -1;
+	    }
+	    long index = (long) (Integer) node - firstId;
+	    return index >= 0 && index < nodeCount ? (int) index : -1;
+	}
+	Integer index = nodeToIndex.get(node);
+	return index == null ? -1 : index;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T node(int index) {
+	if (nodes == null) {
+	    if (index < 0 || index >= nodeCount) {
+		throw new IndexOutOfBoundsException("Node index " + index + " of " + nodeCount);
+	    }
+	    return (T) Integer.valueOf(firstId + index);
+	}
+	return (T) nodes[index];
+    }
+
+    public int edgeStart(int node) {
+	return offsets[node];
+    }
+
+    public int edgeEnd(int node) {
+	return offsets[node + 1];
+    }
+
+    public int target(int edge) {
+	return targets[edge];
+    }
+
+    public double weight(int edge) {
+	return weights[edge];
+    }
+
+    public int inEdgeStart(int node) {
+	return inOffsets[node];
+    }
+
+    public int inEdgeEnd(int node) {
+	return inOffsets[node + 1];
+    }
+
+    public int source(int inEdge) {
+	return sources[inEdge];
+    }
+
+    public double inWeight(int inEdge) {
+	return inWeights[inEdge];
+    }
+
+}
@@ -0,0 +1,394 @@
+package com.allenmp.algs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.graph.ValueGraph;
+
+/**
+ * Parallel single-source shortest paths by delta-stepping (Meyer &amp; Sanders,
+ * "Delta-stepping: a parallelizable shortest path algorithm", 2003) on a
+ * {@link CsrGraph} with non-negative weights.
+ * <p>
+ * Nodes are kept in buckets of width {@code delta} by tentative distance. The
+ * smallest non-empty bucket is emptied repeatedly by relaxing the light edges
+ * ({@code w <= delta}) of its nodes, which may put nodes back into it; once it
+ * stays empty the heavy edges of every node it held are relaxed. Each round's
+ * frontier is split into chunks relaxed in parallel on a {@link ForkJoinPool};
+ * distances are lowered with compare-and-set and each chunk buffers the nodes
+ * it lowered, which are merged into the buckets after the round.
+ * <p>
+ * Predecessors are not tracked during the search, since a distance and its
+ * predecessor cannot be set in one atomic step. They are derived afterwards
+ * from the incoming edges that are tight ({@code dist(u) + w == dist(v)}).
+ * A small {@code delta} approaches Dijkstra with little parallelism, a large
+ * one approaches Bellman-Ford with much wasted work.
+ *
+ * @param <T>
+ *            node type
+ */
+public class DeltaSteppingShortestPaths<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeltaSteppingShortestPaths.class);
+
+    // frontier nodes per parallel task; smaller frontiers are relaxed on the
+    // calling thread
+    private static final int CHUNK = 256;
+
+    // most buckets held in the ring; nodes lowered into buckets further ahead
+    // wait in an overflow list
+    private static final int MAX_BUCKETS = 1024;
+
+    private final CsrGraph<T> graph;
+    private final double delta;
+    private final ForkJoinPool pool;
+
+    // live buckets span at most maxWeight / delta + 1 indices, so a ring of
+    // buckets this long never has two live indices in one slot; a longer span
+    // is capped and the far buckets overflow
+    private final int bucketCount;
+
+    public DeltaSteppingShortestPaths(ValueGraph<T, Double> graph) {
+	this(CsrGraph.compile(graph));
+    }
+
+    /**
+     * Uses the mean edge weight as delta and the common pool.
+     */
+    public DeltaSteppingShortestPaths(CsrGraph<T> graph) {
+	this(graph, meanWeight(graph), ForkJoinPool.commonPool());
+    }
+
+    public DeltaSteppingShortestPaths(CsrGraph<T> graph, double delta, ForkJoinPool pool) {
+	super();
+	this.graph = Objects.requireNonNull(graph);
+	this.pool = Objects.requireNonNull(pool);
+	if (!(delta > 0) || Double.isInfinite(delta)) {
+	    throw new IllegalArgumentException("Delta must be positive and finite: " + delta);
+	}
+	this.delta = delta;
+
+	double maxWeight = 0;
+	for (int e = 0; e < graph.edgeCount(); e++) {
+	    double w = graph.weight(e);
+	    if (w < 0) {
+		throw new IllegalArgumentException("Delta-stepping needs non-negative edge weights: " + w);
+	    }
+	    maxWeight = Math.max(maxWeight, w);
+	}
+	this.bucketCount = (int) Math.min(MAX_BUCKETS, maxWeight / delta + 2);
+    }
+
+    private static double meanWeight(CsrGraph<?> graph) {
+	double total = 0;
+	for (int e = 0; e < graph.edgeCount(); e++) {
+	    total += graph.weight(e);
+	}
+	return total > 0 ? total / graph.edgeCount() : 1.0;
+    }
+
+    /**
+     * Computes the shortest path tree from the source. Several trees may be
+     * computed at the same time.
+     */
+    public ShortestPathTree<T> compute(T source) {
+	int s = graph.indexOf(source);
+	if (s < 0) {
+	    throw new IllegalArgumentException("Graph does not contain start node: " + source);
+	}
+	long begin = System.nanoTime();
+	ShortestPathTree<T> tree = new Search(s).run();
+	LOG.debug("Tree: source={} millis={}", source, (System.nanoTime() - begin) / 1000000);
+	return tree;
+    }
+
+    /**
+     * State of one computation.
+     */
+    private class Search {
+
+	private final int source;
+
+	// tentative distances as raw long bits, for compare-and-set
+	private final AtomicLongArray dist;
+
+	// bucket each node is currently listed in, -1 if none; entries in other
+	// buckets are stale and skipped
+	private final long[] listedIn;
+	private int listed = 0;
+
+	// ring of buckets starting at bucket index current, each created on
+	// first use
+	private final IntList[] buckets;
+	private long current = 0;
+
+	// nodes listed in buckets past the ring, and those buckets
+	private final IntList overflow = new IntList();
+	private long[] overflowBuckets = new long[16];
+
+	// nodes settled in the current bucket, each once
+	private final IntList settled = new IntList();
+	private final long[] settledIn;
+
+	private final IntList frontier = new IntList();
+	private final List<IntList> lowered = new ArrayList<>();
+
+	Search(int source) {
+	    int n = graph.nodeCount();
+	    this.source = source;
+	    this.dist = new AtomicLongArray(n);
+	    long infinity = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+	    for (int v = 0; v < n; v++) {
+		dist.set(v, infinity);
+	    }
+	    this.listedIn = new long[n];
+	    this.settledIn = new long[n];
+	    Arrays.fill(listedIn, -1);
+	    Arrays.fill(settledIn, -1);
+	    this.buckets = new IntList[bucketCount];
+	}
+
+	ShortestPathTree<T> run() {
+	    dist.set(source, Double.doubleToRawLongBits(0.0));
+	    IntList start = chunkBuffer(0);
+	    start.add(source);
+	    merge(start);
+
+	    for (long i = 0; listed > 0; i = next(i)) {
+		current = i;
+		IntList bucket = buckets[(int) (i % bucketCount)];
+		while (bucket != null && bucket.size > 0) {
+		    frontier.clear();
+		    for (int j = 0; j < bucket.size; j++) {
+			int v = bucket.items[j];
+			listed--;
+			if (listedIn[v] == i) {
+			    listedIn[v] = -1;
+			    frontier.add(v);
+			    if (settledIn[v] != i) {
+				settledIn[v] = i;
+				settled.add(v);
+			    }
+			}
+		    }
+		    bucket.clear();
+		    relax(frontier, true);
+		}
+		relax(settled, false);
+		settled.clear();
+	    }
+
+	    int n = graph.nodeCount();
+	    double[] distances = new double[n];
+	    for (int v = 0; v < n; v++) {
+		distances[v] = Double.longBitsToDouble(dist.get(v));
+	    }
+	    return new ShortestPathTree<>(graph, source, distances, predecessors(distances));
+	}
+
+	/**
+	 * Finds the next bucket holding any entry. Once the ring is empty it
+	 * drops the stale overflow entries and moves the ring to the smallest
+	 * bucket still listed.
+	 */
+	private long next(long i) {
+	    for (long b = i + 1; b < i + bucketCount; b++) {
+		IntList bucket = buckets[(int) (b % bucketCount)];
+		if (bucket != null && bucket.size > 0) {
+		    return b;
+		}
+	    }
+
+	    long first = Long.MAX_VALUE;
+	    int kept = 0;
+	    for (int j = 0; j < overflow.size; j++) {
+		int v = overflow.items[j];
+		long b = overflowBuckets[j];
+		if (listedIn[v] == b) {
+		    first = Math.min(first, b);
+		    overflow.items[kept] = v;
+		    overflowBuckets[kept++] = b;
+		} else {
+		    listed--;
+		}
+	    }
+	    if (kept == 0) {
+		overflow.clear();
+		return i + 1;
+	    }
+
+	    // entries are only ever written back at or before the one being read
+	    current = first;
+	    overflow.clear();
+	    for (int j = 0; j < kept; j++) {
+		list(overflow.items[j], overflowBuckets[j]);
+	    }
+	    return first;
+	}
+
+	/**
+	 * Relaxes the light or heavy edges of the nodes, then moves every lowered
+	 * node to its new bucket.
+	 */
+	private void relax(IntList nodes, boolean light) {
+	    int size = nodes.size;
+	    if (size <= CHUNK) {
+		IntList buffer = chunkBuffer(0);
+		relax(nodes, 0, size, light, buffer);
+		merge(buffer);
+		return;
+	    }
+
+	    int chunks = (size + CHUNK - 1) / CHUNK;
+	    for (int c = 0; c < chunks; c++) {
+		chunkBuffer(c);
+	    }
+	    invoke(() -> IntStream.range(0, chunks).parallel().forEach(
+		    c -> relax(nodes, c * CHUNK, Math.min(size, (c + 1) * CHUNK), light, lowered.get(c))));
+	    for (int c = 0; c < chunks; c++) {
+		merge(lowered.get(c));
+	    }
+	}
+
+	private void relax(IntList nodes, int from, int to, boolean light, IntList buffer) {
+	    for (int j = from; j < to; j++) {
+		int u = nodes.items[j];
+		double du = Double.longBitsToDouble(dist.get(u));
+		for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+		    double w = graph.weight(e);
+		    if (light != (w <= delta)) {
+			continue;
+		    }
+		    int v = graph.target(e);
+		    double alternate = du + w;
+		    long current = dist.get(v);
+		    while (alternate < Double.longBitsToDouble(current)) {
+			if (dist.compareAndSet(v, current, Double.doubleToRawLongBits(alternate))) {
+			    buffer.add(v);
+			    break;
+			}
+			current = dist.get(v);
+		    }
+		}
+	    }
+	}
+
+	private void merge(IntList buffer) {
+	    for (int j = 0; j < buffer.size; j++) {
+		int v = buffer.items[j];
+		long b = (long) (Double.longBitsToDouble(dist.get(v)) / delta);
+		if (listedIn[v] != b) {
+		    listedIn[v] = b;
+		    list(v, b);
+		    listed++;
+		}
+	    }
+	    buffer.clear();
+	}
+
+	private void list(int v, long b) {
+	    if (b - current < bucketCount) {
+		int slot = (int) (b % bucketCount);
+		if (buckets[slot] == null) {
+		    buckets[slot] = new IntList();
+		}
+		buckets[slot].add(v);
+	    } else {
+		if (overflow.size == overflowBuckets.length) {
+		    overflowBuckets = Arrays.copyOf(overflowBuckets, overflow.size * 2);
+		}
+		overflowBuckets[overflow.size] = b;
+		overflow.add(v);
+	    }
+	}
+
+	private IntList chunkBuffer(int c) {
+	    while (lowered.size() <= c) {
+		lowered.add(new IntList());
+	    }
+	    return lowered.get(c);
+	}
+
+	/**
+	 * Picks for every reached node an incoming edge that is tight. Edges of
+	 * weight zero are only followed forward from nodes that already have a
+	 * predecessor, so zero-weight cycles cannot form a predecessor cycle.
+	 */
+	private int[] predecessors(double[] distances) {
+	    int n = graph.nodeCount();
+	    int[] prev = new int[n];
+	    Arrays.fill(prev, -1);
+	    invoke(() -> IntStream.range(0, n).parallel().forEach(v -> {
+		if (v == source || Double.isInfinite(distances[v])) {
+		    return;
+		}
+		for (int e = graph.inEdgeStart(v), end = graph.inEdgeEnd(v); e < end; e++) {
+		    double w = graph.inWeight(e);
+		    int u = graph.source(e);
+		    if (w > 0 && distances[u] + w == distances[v]) {
+			prev[v] = u;
+			return;
+		    }
+		}
+	    }));
+
+	    IntList stack = new IntList();
+	    for (int v = 0; v < n; v++) {
+		if (v == source || prev[v] >= 0) {
+		    stack.add(v);
+		}
+	    }
+	    while (stack.size > 0) {
+		int u = stack.items[--stack.size];
+		for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+		    int v = graph.target(e);
+		    if (graph.weight(e) == 0 && v != source && prev[v] < 0 && distances[u] == distances[v]) {
+			prev[v] = u;
+			stack.add(v);
+		    }
+		}
+	    }
+	    return prev;
+	}
+
+	private void invoke(Runnable task) {
+	    try {
+		pool.submit(task).get();
+	    } catch (InterruptedException e) {
+		Thread.currentThread().interrupt();
+		throw new IllegalStateException("Interrupted during delta-stepping", e);
+	    } catch (ExecutionException e) {
+		throw new IllegalStateException("Delta-stepping failed", e.getCause());
+	    }
+	}
+    }
+
+    /**
+     * Growable list of ints.
+     */
+    private static class IntList {
+	int[] items = new int[16];
+	int size = 0;
+
+	void add(int value) {
+	    if (size == items.length) {
+		items = Arrays.copyOf(items, size * 2);
+	    }
+	    items[size++] = value;
+	}
+
+	void clear() {
+	    size = 0;
+	}
+    }
+
+}
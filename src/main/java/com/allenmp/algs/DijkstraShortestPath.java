@@ -2,21 +2,27 @@ package com.allenmp.algs;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.PriorityQueue;
-import java.util.Queue;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.graph.ValueGraph;
 
-public class DijkstraShortestPath<T> implements ShortestPathAlg<T> {
+/**
+ * Dijkstra's algorithm over a {@link ValueGraph}. Searches are resumable:
+ * after a goal change with the same start, a goal that was already settled is
+ * answered without searching, and any other goal continues the previous search
+ * from its frontier.
+ *
+ * @param <T>
+ *            node type
+ */
+public class DijkstraShortestPath<T> implements ShortestPathAlg<T>, InstrumentedSearch {
 
     private static final Logger LOG = LoggerFactory.getLogger(DijkstraShortestPath.class);
 
@@ -25,13 +31,8 @@ public class DijkstraShortestPath<T> implements ShortestPathAlg<T> {
     // Each node to its final calculated distance
     private Map<T, Double> nodeToDist = new HashMap<>();
 
-    // Priority Queue to always return closest unvisited node
-    private Queue<T> unvisited = new PriorityQueue<>(new Comparator<T>() {
-	@Override
-	public int compare(T o1, T o2) {
-	    return nodeToDist.get(o1).compareTo(nodeToDist.get(o2));
-	}
-    });
+    // Indexed heap to always return closest discovered, unvisited node
+    private NodeMinHeap<T> unvisited = new NodeMinHeap<>();
 
     // Each node to the previous node along the calculated shortest route
     private Map<T, T> nodeToPrev = new HashMap<>();
@@ -40,6 +41,18 @@ public class DijkstraShortestPath<T> implements ShortestPathAlg<T> {
     private T goal;
     private boolean calc = false;
 
+    // Start node the maps and heap currently hold a search from, and the goal
+    // the last search stopped at without expanding it
+    private T searched;
+    private T unexpanded;
+
+    // Work of the current query, reported as SearchStats when it finishes
+    private long settled;
+    private long relaxations;
+    private long decreaseKeys;
+    private SearchListener listener;
+    private SearchStats stats;
+
     public DijkstraShortestPath(ValueGraph<T, Double> graph) {
 	super();
 	this.graph = Objects.requireNonNull(graph);
@@ -75,6 +88,23 @@ public class DijkstraShortestPath<T> implements ShortestPathAlg<T> {
 	return nodeToPrev.size();
     }
 
+    /**
+     * @param listener
+     *            told about every query from now on, or null for none
+     */
+    @Override
+    public void setSearchListener(SearchListener listener) {
+	this.listener = listener;
+    }
+
+    /**
+     * @return what the last query did, null before the first one
+     */
+    @Override
+    public SearchStats searchStats() {
+	return stats;
+    }
+
     public List<T> path() {
 	if (goal == start) {
 	    return Arrays.asList(start, start);
@@ -82,11 +112,13 @@ public class DijkstraShortestPath<T> implements ShortestPathAlg<T> {
 
 	calculate();
 
-	if (Double.isInfinite(nodeToDist.get(goal))) {
+	if (Double.isInfinite(getDistance(goal))) {
 	    // goal is unreachable
 	    return new ArrayList<>();
 	}
 
+	Object event = SearchEvents.beginUnpack();
+
 	// walk path backward from goal to start
 	LinkedList<T> path = new LinkedList<>();
 	path.addLast(goal);
@@ -96,6 +128,9 @@ public class DijkstraShortestPath<T> implements ShortestPathAlg<T> {
 	    path.addFirst(prev);
 	}
 
+	if (SearchEvents.shouldCommit(event)) {
+	    SearchEvents.commitUnpack(event, getClass(), path.size());
+	}
 	LOG.debug("Path: {}", path);
 	return path;
     }
@@ -103,7 +138,7 @@ public class DijkstraShortestPath<T> implements ShortestPathAlg<T> {
     public double pathLength() {
 	calculate();
 
-	double minLength = nodeToDist.get(goal);
+	double minLength = getDistance(goal);
 	LOG.debug("FinalDistances: nodeToDist={} min={}", nodeToDist, minLength);
 	return minLength;
     }
@@ -117,33 +152,53 @@ public class DijkstraShortestPath<T> implements ShortestPathAlg<T> {
 	Objects.requireNonNull(start);
 	Objects.requireNonNull(goal);
 
-	nodeToDist.clear();
-	nodeToPrev.clear();
-
-	// Start node is initialized to zero distance, everything else is
-	// unknown
-	unvisited.clear();
-	for (T node : graph.nodes()) {
-	    if (start.equals(node)) {
-		nodeToDist.put(node, 0.0);
-		unvisited.add(node);
-	    } else {
-		nodeToDist.put(node, Double.POSITIVE_INFINITY);
-		unvisited.add(node);
+	Object event = SearchEvents.beginSearch();
+	long begin = System.nanoTime();
+	settled = 0;
+	relaxations = 0;
+	decreaseKeys = 0;
+
+	boolean resumed = start.equals(searched);
+	if (resumed) {
+	    // same start: the settled nodes are final, so only search on if the
+	    // goal is not among them
+	    if (nodeToDist.containsKey(goal) && !unvisited.contains(goal)) {
+		LOG.trace("AlreadySettled: goal={}", goal);
+		calc = true;
+		finish(begin, event, true);
+		return;
+	    }
+	    if (unexpanded != null) {
+		evaluateNeighbors(unexpanded);
+		unexpanded = null;
+	    }
+	} else {
+	    Object setup = SearchEvents.beginSetup();
+	    nodeToDist.clear();
+	    nodeToPrev.clear();
+
+	    // Start node is initialized to zero distance; everything else is
+	    // unknown (infinite) until it is discovered and queued
+	    unvisited.clear();
+	    nodeToDist.put(start, 0.0);
+	    unvisited.insert(start, 0.0);
+	    searched = start;
+	    unexpanded = null;
+	    if (SearchEvents.shouldCommit(setup)) {
+		SearchEvents.commitSetup(setup, getClass(), graph.nodes().size());
 	    }
 	}
 
 	while (!unvisited.isEmpty()) {
 	    // "visit" next unvisited node
 	    T closestNode = unvisited.poll();
-	    Double distance = nodeToDist.get(closestNode);
-
-	    LOG.trace("ClosestNode: node={} dist={}", closestNode, distance);
+	    settled++;
 
-	    // terminate early if we reached the goal
+	    // terminate early if we reached the goal, expanding it only if a
+	    // later goal needs the search to go on
 	    if (goal.equals(closestNode)) {
 		LOG.trace("Terminating");
-		calc = true;
+		unexpanded = closestNode;
 		break;
 	    }
 
@@ -152,20 +207,33 @@ public class DijkstraShortestPath<T> implements ShortestPathAlg<T> {
 	}
 
 	calc = true;
+	finish(begin, event, resumed);
+    }
+
+    private void finish(long begin, Object event, boolean resumed) {
+	stats = new SearchStats(settled, relaxations, decreaseKeys, 0, nodeToPrev.size(), System.nanoTime() - begin);
+	if (SearchEvents.shouldCommit(event)) {
+	    SearchEvents.commitSearch(event, getClass(), graph.nodes().size(), start, goal, resumed, settled,
+		    relaxations, nodeToPrev.size());
+	}
+	if (listener != null) {
+	    listener.searchFinished(stats);
+	}
     }
 
     private void evaluateNeighbors(T start) {
 
 	for (T neighbor : graph.adjacentNodes(start)) {
+	    relaxations++;
 	    double alternate = nodeToDist.get(start) + graph.edgeValueOrDefault(start, neighbor, Double.POSITIVE_INFINITY);
 
-	    LOG.trace("Neighbor: n={} alt={}", neighbor, alternate);
-
-	    // update if there's a shorter path to N
+	    // update if there's a shorter path to N; a node with a distance is
+	    // still queued, since settled distances never drop
 	    double oldDist = getDistance(neighbor);
 	    if (alternate < oldDist) {
-		LOG.trace("UpdatedDist: neighbor={} old={} new={}", neighbor, oldDist, alternate);
-
+		if (oldDist != Double.POSITIVE_INFINITY) {
+		    decreaseKeys++;
+		}
 		updateDistance(neighbor, alternate);
 		nodeToPrev.put(neighbor, start);
 	    }
@@ -173,14 +241,13 @@ public class DijkstraShortestPath<T> implements ShortestPathAlg<T> {
     }
 
     public Double getDistance(T node) {
-	return nodeToDist.get(node);
+	return nodeToDist.getOrDefault(node, Double.POSITIVE_INFINITY);
     }
 
-    private void updateDistance(T node, Double dist) {
+    private void updateDistance(T node, double dist) {
 	nodeToDist.put(node, dist);
-	// remove and re-add to update queue
-	unvisited.remove(node);
-	unvisited.add(node);
+	// queue newly discovered nodes, re-key already queued ones
+	unvisited.insertOrDecrease(node, dist);
     }
 
     /**
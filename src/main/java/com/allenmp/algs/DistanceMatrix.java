@@ -0,0 +1,158 @@
+package com.allenmp.algs;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.graph.ValueGraph;
+
+/**
+ * Many-to-many shortest path distances on a {@link CsrGraph}. Each source runs
+ * one Dijkstra that stops as soon as every target is settled, instead of one
+ * search per source and target pair, and sources are spread over an
+ * {@link Executor}.
+ * <p>
+ * Instances only hold the graph and a {@link SearchWorkspacePool}, so one can
+ * compute several matrices at the same time.
+ *
+ * @param <T>
+ *            node type
+ */
+public class DistanceMatrix<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DistanceMatrix.class);
+
+    private final CsrGraph<T> graph;
+    private final SearchWorkspacePool workspaces;
+
+    public DistanceMatrix(ValueGraph<T, Double> graph) {
+	this(CsrGraph.compile(graph));
+    }
+
+    public DistanceMatrix(CsrGraph<T> graph) {
+	this(graph, new SearchWorkspacePool(graph, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public DistanceMatrix(CsrGraph<T> graph, SearchWorkspacePool workspaces) {
+	super();
+	this.graph = Objects.requireNonNull(graph);
+	this.workspaces = Objects.requireNonNull(workspaces);
+    }
+
+    public double[] compute(List<T> sources, List<T> targets) {
+	return compute(sources, targets, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @return row-major distances, {@code [i * targets.size() + j]} from source
+     *         i to target j, infinity where the target is unreachable
+     */
+    public double[] compute(List<T> sources, List<T> targets, Executor executor) {
+	int m = targets.size();
+	double[] matrix = new double[sources.size() * m];
+	run(sources, targets, executor, (i, j, d) -> matrix[i * m + j] = d);
+	return matrix;
+    }
+
+    /**
+     * @return distances from source i to target j at {@code [i][j]}
+     */
+    public double[][] computeRows(List<T> sources, List<T> targets, Executor executor) {
+	double[][] matrix = new double[sources.size()][targets.size()];
+	run(sources, targets, executor, (i, j, d) -> matrix[i][j] = d);
+	return matrix;
+    }
+
+    private interface Cell {
+	void set(int source, int target, double distance);
+    }
+
+    private void run(List<T> sources, List<T> targets, Executor executor, Cell out) {
+	Objects.requireNonNull(executor);
+	long begin = System.nanoTime();
+	int[] sourceIndex = indices(sources, "source");
+	int[] targetIndex = indices(targets, "target");
+
+	boolean[] isTarget = new boolean[graph.nodeCount()];
+	int distinct = 0;
+	for (int t : targetIndex) {
+	    if (!isTarget[t]) {
+		isTarget[t] = true;
+		distinct++;
+	    }
+	}
+	int targetCount = distinct;
+
+	CompletableFuture<?>[] rows = new CompletableFuture<?>[sourceIndex.length];
+	for (int i = 0; i < sourceIndex.length; i++) {
+	    int row = i;
+	    rows[i] = CompletableFuture.runAsync(
+		    () -> search(sourceIndex[row], row, targetIndex, isTarget, targetCount, out), executor);
+	}
+	try {
+	    CompletableFuture.allOf(rows).join();
+	} catch (CompletionException e) {
+	    if (e.getCause() instanceof RuntimeException) {
+		throw (RuntimeException) e.getCause();
+	    }
+	    throw new IllegalStateException("Distance matrix failed", e.getCause());
+	}
+
+	LOG.debug("Matrix: sources={} targets={} millis={}", sourceIndex.length, targetIndex.length,
+		(System.nanoTime() - begin) / 1000000);
+    }
+
+    private int[] indices(List<T> nodes, String role) {
+	int[] indices = new int[nodes.size()];
+	for (int i = 0; i < indices.length; i++) {
+	    T node = nodes.get(i);
+	    indices[i] = graph.indexOf(node);
+	    if (indices[i] < 0) {
+		throw new IllegalArgumentException("Graph does not contain " + role + " node: " + node);
+	    }
+	}
+	return indices;
+    }
+
+    /**
+     * Dijkstra from one source until every distinct target is settled.
+     */
+    private void search(int source, int row, int[] targetIndex, boolean[] isTarget, int targetCount, Cell out) {
+	SearchWorkspace ws = workspaces.acquire();
+	try {
+	    IntMinHeap heap = ws.heap();
+	    ws.update(source, 0.0, -1);
+	    heap.insert(source, 0.0);
+	    int remaining = targetCount;
+	    while (!heap.isEmpty()) {
+		int u = heap.poll();
+		if (isTarget[u] && --remaining == 0) {
+		    break;
+		}
+		double du = ws.dist(u);
+		for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+		    int v = graph.target(e);
+		    double alternate = du + graph.weight(e);
+		    if (alternate < ws.dist(v)) {
+			ws.update(v, alternate, u);
+			heap.insertOrDecrease(v, alternate);
+		    }
+		}
+	    }
+
+	    // unreached targets read as infinity
+	    for (int j = 0; j < targetIndex.length; j++) {
+		out.set(row, j, ws.dist(targetIndex[j]));
+	    }
+	} finally {
+	    workspaces.release(ws);
+	}
+    }
+
+}
@@ -18,7 +18,8 @@ public class EuclideanDistance implements DistanceFunction<Node> {
 	// d = sqrt( (x1-x2)^2 + (y1-y2)^2 + ... )
 	double d = 0;
 	for (int i=0; i<dim1; i++) {
-	    d += Math.pow(c1[i] - c2[i], 2);
+	    double delta = c1[i] - c2[i];
+	    d += delta * delta;
 	}
 	return Math.sqrt(d);
     }
@@ -0,0 +1,406 @@
+package com.allenmp.algs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.graph.EndpointPair;
+
+/**
+ * Kruskal's algorithm over an edge list file too large for the heap.
+ * <p>
+ * The file holds one edge per line, {@code u v weight}, with non-negative int
+ * node ids separated by whitespace or commas; lines starting with {@code #} or
+ * {@code %} are comments. Edges are read in runs of a fixed size, each run is
+ * sorted by weight and written to a temporary file, and the runs are merged
+ * {@code fanIn} at a time until one merge can feed them, smallest weight
+ * first, to a {@link UnionFind}. Memory is bounded by one run plus one read
+ * buffer per merged run, the union-find over the largest node id and the
+ * forest itself; all file access is sequential.
+ * <p>
+ * Edges are treated as undirected and self loops are ignored. Every node id
+ * that appears in the file is a node of the forest.
+ */
+public class ExternalKruskalSpanningTree implements SpanningTreeAlg<Integer> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExternalKruskalSpanningTree.class);
+
+    // 16 MB of edges per run
+    private static final int DEFAULT_RUN_SIZE = 1 << 20;
+    private static final int DEFAULT_FAN_IN = 64;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int EDGE_BYTES = 16;
+
+    private final int runSize;
+    private final int fanIn;
+    private final Path tempDir;
+
+    // the current run
+    private final int[] runFrom;
+    private final int[] runTo;
+    private final double[] runWeight;
+    private int runLength = 0;
+    private final List<Path> runs = new ArrayList<>();
+
+    private final BitSet nodes = new BitSet();
+    private int[] treeFrom;
+    private int[] treeTo;
+    private int treeSize = 0;
+    private double totalWeight = 0;
+
+    public ExternalKruskalSpanningTree(Path edgeFile) throws IOException {
+	this(edgeFile, DEFAULT_RUN_SIZE, DEFAULT_FAN_IN, null);
+    }
+
+    /**
+     * @param runSize
+     *            edges sorted in memory at a time
+     * @param fanIn
+     *            runs merged at a time
+     * @param tempDir
+     *            directory for the runs, null for the default temporary
+     *            directory
+     */
+    public ExternalKruskalSpanningTree(Path edgeFile, int runSize, int fanIn, Path tempDir) throws IOException {
+	super();
+	Objects.requireNonNull(edgeFile);
+	if (runSize < 1) {
+	    throw new IllegalArgumentException("Run size must be positive: " + runSize);
+	}
+	if (fanIn < 2) {
+	    throw new IllegalArgumentException("Fan-in must be at least 2: " + fanIn);
+	}
+	this.runSize = runSize;
+	this.fanIn = fanIn;
+	this.tempDir = tempDir;
+	this.runFrom = new int[runSize];
+	this.runTo = new int[runSize];
+	this.runWeight = new double[runSize];
+
+	long begin = System.nanoTime();
+	try {
+	    long edges = split(edgeFile);
+	    while (runs.size() > fanIn) {
+		mergeRuns();
+	    }
+	    int nodeCount = nodes.cardinality();
+	    UnionFind components = new UnionFind(nodes.length());
+	    treeFrom = new int[Math.max(0, nodeCount - 1)];
+	    treeTo = new int[treeFrom.length];
+	    EdgeSink kruskal = (u, v, w) -> {
+		if (components.union(u, v)) {
+		    treeFrom[treeSize] = u;
+		    treeTo[treeSize] = v;
+		    treeSize++;
+		    totalWeight += w;
+		}
+		// a spanning tree can't grow any further
+		return treeSize < treeFrom.length;
+	    };
+	    if (runs.isEmpty()) {
+		sortRun();
+		for (int i = 0; i < runLength && kruskal.accept(runFrom[i], runTo[i], runWeight[i]); i++) {
+		    // feed the in-memory run
+		}
+	    } else {
+		merge(runs, kruskal);
+	    }
+	    LOG.debug("SpanningForest: nodes={} edges={} trees={} weight={} runs={} millis={}", nodeCount, edges,
+		    countTrees(), totalWeight, runs.size(), (System.nanoTime() - begin) / 1000000);
+	} finally {
+	    for (Path run : runs) {
+		Files.deleteIfExists(run);
+	    }
+	}
+    }
+
+    @Override
+    public List<EndpointPair<Integer>> edges() {
+	List<EndpointPair<Integer>> edges = new ArrayList<>(treeSize);
+	for (int i = 0; i < treeSize; i++) {
+	    edges.add(EndpointPair.unordered(treeFrom[i], treeTo[i]));
+	}
+	return edges;
+    }
+
+    @Override
+    public double totalWeight() {
+	return totalWeight;
+    }
+
+    @Override
+    public int countTrees() {
+	return nodes.cardinality() - treeSize;
+    }
+
+    /**
+     * Reads the edge file into sorted runs, keeping the last one in memory if
+     * it is the only one.
+     *
+     * @return the number of edges read
+     */
+    private long split(Path edgeFile) throws IOException {
+	long edges = 0;
+	try (FieldTokenizer in = new FieldTokenizer(edgeFile)) {
+	    while (in.nextLine()) {
+		int c = in.peekField();
+		if (c == '#' || c == '%') {
+		    continue;
+		}
+		int u = in.nextInt();
+		int v = in.nextInt();
+		double w = in.nextDouble();
+		if (u < 0 || v < 0) {
+		    throw in.malformed("node ids must be non-negative");
+		}
+		if (Double.isNaN(w)) {
+		    throw in.malformed("weight is not a number");
+		}
+		nodes.set(u);
+		nodes.set(v);
+		edges++;
+		if (u == v) {
+		    continue;
+		}
+		if (runLength == runSize) {
+		    writeRun();
+		}
+		runFrom[runLength] = u;
+		runTo[runLength] = v;
+		runWeight[runLength] = w;
+		runLength++;
+	    }
+	}
+	if (!runs.isEmpty() && runLength > 0) {
+	    writeRun();
+	}
+	return edges;
+    }
+
+    private void writeRun() throws IOException {
+	sortRun();
+	Path file = newRun();
+	try (RunWriter out = new RunWriter(file)) {
+	    for (int i = 0; i < runLength; i++) {
+		out.write(runFrom[i], runTo[i], runWeight[i]);
+	    }
+	}
+	runLength = 0;
+    }
+
+    private Path newRun() throws IOException {
+	Path file = tempDir == null ? Files.createTempFile("kruskal", ".run")
+		: Files.createTempFile(tempDir, "kruskal", ".run");
+	runs.add(file);
+	return file;
+    }
+
+    /**
+     * Merges the runs in groups of {@code fanIn} into longer runs.
+     */
+    private void mergeRuns() throws IOException {
+	List<Path> inputs = new ArrayList<>(runs);
+	runs.clear();
+	try {
+	    for (int i = 0; i < inputs.size(); i += fanIn) {
+		List<Path> group = inputs.subList(i, Math.min(inputs.size(), i + fanIn));
+		try (RunWriter out = new RunWriter(newRun())) {
+		    merge(group, (u, v, w) -> {
+			out.write(u, v, w);
+			return true;
+		    });
+		}
+	    }
+	} finally {
+	    for (Path input : inputs) {
+		Files.deleteIfExists(input);
+	    }
+	}
+    }
+
+    private interface EdgeSink {
+	/**
+	 * @return false to stop the merge
+	 */
+	boolean accept(int u, int v, double w) throws IOException;
+    }
+
+    /**
+     * Feeds the edges of sorted runs to the sink in weight order.
+     */
+    private static void merge(List<Path> files, EdgeSink sink) throws IOException {
+	List<RunReader> readers = new ArrayList<>(files.size());
+	try {
+	    IntMinHeap heap = new IntMinHeap(files.size());
+	    for (int i = 0; i < files.size(); i++) {
+		RunReader reader = new RunReader(files.get(i));
+		readers.add(reader);
+		if (reader.next()) {
+		    heap.insert(i, reader.w);
+		}
+	    }
+	    while (!heap.isEmpty()) {
+		int i = heap.poll();
+		RunReader reader = readers.get(i);
+		if (!sink.accept(reader.u, reader.v, reader.w)) {
+		    return;
+		}
+		if (reader.next()) {
+		    heap.insert(i, reader.w);
+		}
+	    }
+	} finally {
+	    for (RunReader reader : readers) {
+		reader.close();
+	    }
+	}
+    }
+
+    /**
+     * Quicksorts the current run by weight, moving the three arrays together.
+     */
+    private void sortRun() {
+	sort(0, runLength - 1);
+    }
+
+    private void sort(int lo, int hi) {
+	while (hi - lo > 16) {
+	    int mid = (lo + hi) >>> 1;
+	    // median of three as pivot
+	    if (runWeight[mid] < runWeight[lo]) {
+		swap(mid, lo);
+	    }
+	    if (runWeight[hi] < runWeight[lo]) {
+		swap(hi, lo);
+	    }
+	    if (runWeight[hi] < runWeight[mid]) {
+		swap(hi, mid);
+	    }
+	    double pivot = runWeight[mid];
+	    int i = lo;
+	    int j = hi;
+	    while (i <= j) {
+		while (runWeight[i] < pivot) {
+		    i++;
+		}
+		while (runWeight[j] > pivot) {
+		    j--;
+		}
+		if (i <= j) {
+		    swap(i++, j--);
+		}
+	    }
+	    // recurse into the smaller side so the stack stays O(log n)
+	    if (j - lo < hi - i) {
+		sort(lo, j);
+		lo = i;
+	    } else {
+		sort(i, hi);
+		hi = j;
+	    }
+	}
+	for (int i = lo + 1; i <= hi; i++) {
+	    for (int j = i; j > lo && runWeight[j] < runWeight[j - 1]; j--) {
+		swap(j, j - 1);
+	    }
+	}
+    }
+
+    private void swap(int i, int j) {
+	int u = runFrom[i];
+	runFrom[i] = runFrom[j];
+	runFrom[j] = u;
+	int v = runTo[i];
+	runTo[i] = runTo[j];
+	runTo[j] = v;
+	double w = runWeight[i];
+	runWeight[i] = runWeight[j];
+	runWeight[j] = w;
+    }
+
+    /**
+     * Buffered sequential writes of {@code u v w} records.
+     */
+    private static final class RunWriter implements Closeable {
+	private final FileChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+	RunWriter(Path file) throws IOException {
+	    channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	void write(int u, int v, double w) throws IOException {
+	    if (buffer.remaining() < EDGE_BYTES) {
+		flush();
+	    }
+	    buffer.putInt(u).putInt(v).putDouble(w);
+	}
+
+	private void flush() throws IOException {
+	    buffer.flip();
+	    while (buffer.hasRemaining()) {
+		channel.write(buffer);
+	    }
+	    buffer.clear();
+	}
+
+	@Override
+	public void close() throws IOException {
+	    try {
+		flush();
+	    } finally {
+		channel.close();
+	    }
+	}
+    }
+
+    /**
+     * Buffered sequential reads of {@code u v w} records.
+     */
+    private static final class RunReader implements Closeable {
+	private final FileChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	int u;
+	int v;
+	double w;
+
+	RunReader(Path file) throws IOException {
+	    channel = FileChannel.open(file, StandardOpenOption.READ);
+	    buffer.flip();
+	}
+
+	boolean next() throws IOException {
+	    if (buffer.remaining() < EDGE_BYTES) {
+		buffer.compact();
+		while (buffer.position() < EDGE_BYTES && channel.read(buffer) >= 0) {
+		    // fill
+		}
+		buffer.flip();
+		if (buffer.remaining() < EDGE_BYTES) {
+		    return false;
+		}
+	    }
+	    u = buffer.getInt();
+	    v = buffer.getInt();
+	    w = buffer.getDouble();
+	    return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+	    channel.close();
+	}
+    }
+
+}
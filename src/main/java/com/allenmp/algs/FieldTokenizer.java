@@ -0,0 +1,241 @@
+package com.allenmp.algs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads numeric fields from a line-oriented ASCII file through one reused
+ * buffer, without a String per line or per number. Fields are separated by
+ * spaces, tabs, commas or semicolons, so the same reader handles DIMACS,
+ * whitespace and CSV/TSV edge lists.
+ */
+final class FieldTokenizer implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    // powers of ten exact as doubles
+    private static final double[] POWERS_OF_TEN = new double[23];
+    static {
+	POWERS_OF_TEN[0] = 1;
+	for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+	    POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+	}
+    }
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private boolean inLine = false;
+    private long line = 0;
+
+    // characters of the current double, for the slow path
+    private char[] chars = new char[32];
+
+    FieldTokenizer(Path file) throws IOException {
+	this(FileChannel.open(file, StandardOpenOption.READ), DEFAULT_BUFFER_SIZE);
+    }
+
+    FieldTokenizer(ReadableByteChannel channel, int bufferSize) {
+	super();
+	this.channel = channel;
+	this.buffer = ByteBuffer.allocate(bufferSize);
+	this.buffer.flip();
+    }
+
+    /**
+     * Skips the rest of the current line and any blank lines.
+     *
+     * @return false at the end of the file
+     */
+    boolean nextLine() throws IOException {
+	if (inLine) {
+	    int c;
+	    while ((c = read()) != '\n' && c >= 0) {
+		// skip
+	    }
+	    inLine = false;
+	}
+	while (true) {
+	    skipSeparators();
+	    int c = peek();
+	    if (c < 0) {
+		return false;
+	    }
+	    if (c == '\n') {
+		read();
+		continue;
+	    }
+	    line++;
+	    inLine = true;
+	    return true;
+	}
+    }
+
+    /**
+     * @return the 1-based number of the current line
+     */
+    long lineNumber() {
+	return line;
+    }
+
+    /**
+     * @return the first character of the next field, -1 at the end of the line
+     */
+    int peekField() throws IOException {
+	skipSeparators();
+	int c = peek();
+	return c == '\n' ? -1 : c;
+    }
+
+    boolean hasField() throws IOException {
+	return peekField() >= 0;
+    }
+
+    void skipField() throws IOException {
+	requireField();
+	while (!isDelimiter(peek())) {
+	    read();
+	}
+    }
+
+    int nextInt() throws IOException {
+	long value = nextLong();
+	if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+	    throw malformed("integer out of range: " + value);
+	}
+	return (int) value;
+    }
+
+    long nextLong() throws IOException {
+	requireField();
+	boolean negative = false;
+	int c = peek();
+	if (c == '-' || c == '+') {
+	    negative = c == '-';
+	    read();
+	}
+	long value = 0;
+	int digits = 0;
+	while ((c = peek()) >= '0' && c <= '9') {
+	    read();
+	    if (++digits > 18) {
+		throw malformed("integer too long");
+	    }
+	    value = value * 10 + (c - '0');
+	}
+	if (digits == 0 || !isDelimiter(c)) {
+	    throw malformed("expected an integer");
+	}
+	return negative ? -value : value;
+    }
+
+    /**
+     * Parses decimals of up to 15 significant digits directly, which is exact
+     * since both the digits and the power of ten are exact doubles; anything
+     * longer goes through {@link Double#parseDouble(String)}.
+     */
+    double nextDouble() throws IOException {
+	requireField();
+	int length = 0;
+	boolean negative = false;
+	long mantissa = 0;
+	int significant = 0;
+	int scale = 0;
+	boolean digits = false;
+	boolean point = false;
+	boolean exact = true;
+	int c;
+	while (!isDelimiter(c = peek())) {
+	    read();
+	    if (length == chars.length) {
+		chars = Arrays.copyOf(chars, length * 2);
+	    }
+	    chars[length++] = (char) c;
+	    if (c >= '0' && c <= '9') {
+		digits = true;
+		if (significant > 0 || c != '0') {
+		    significant++;
+		    mantissa = significant <= 18 ? mantissa * 10 + (c - '0') : mantissa;
+		}
+		if (point) {
+		    scale++;
+		}
+	    } else if (c == '.' && !point) {
+		point = true;
+	    } else if (length == 1 && (c == '-' || c == '+')) {
+		negative = c == '-';
+	    } else {
+		// exponent or anything unusual
+		exact = false;
+	    }
+	}
+	if (!digits) {
+	    throw malformed("expected a number");
+	}
+	if (exact && significant <= 15 && scale < POWERS_OF_TEN.length) {
+	    double value = mantissa / POWERS_OF_TEN[scale];
+	    return negative ? -value : value;
+	}
+	try {
+	    return Double.parseDouble(new String(chars, 0, length));
+	} catch (NumberFormatException e) {
+	    throw malformed("expected a number: " + new String(chars, 0, length));
+	}
+    }
+
+    @Override
+    public void close() throws IOException {
+	channel.close();
+    }
+
+    IOException malformed(String message) {
+	return new IOException("Line " + line + ": " + message);
+    }
+
+    private void requireField() throws IOException {
+	if (!hasField()) {
+	    throw malformed("missing field");
+	}
+    }
+
+    private void skipSeparators() throws IOException {
+	int c;
+	while ((c = peek()) == ' ' || c == '\t' || c == ',' || c == ';' || c == '\r') {
+	    read();
+	}
+    }
+
+    private static boolean isDelimiter(int c) {
+	return c < 0 || c == '\n' || c == ' ' || c == '\t' || c == ',' || c == ';' || c == '\r';
+    }
+
+    private int peek() throws IOException {
+	if (!buffer.hasRemaining() && !fill()) {
+	    return -1;
+	}
+	return buffer.get(buffer.position()) & 0xff;
+    }
+
+    private int read() throws IOException {
+	if (!buffer.hasRemaining() && !fill()) {
+	    return -1;
+	}
+	return buffer.get() & 0xff;
+    }
+
+    private boolean fill() throws IOException {
+	buffer.clear();
+	int read;
+	do {
+	    read = channel.read(buffer);
+	} while (read == 0);
+	buffer.flip();
+	return read > 0;
+    }
+
+}
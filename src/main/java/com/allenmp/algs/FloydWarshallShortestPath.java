@@ -0,0 +1,280 @@
+package com.allenmp.algs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.graph.ValueGraph;
+
+/**
+ * All-pairs shortest paths by Floyd-Warshall, for small but dense graphs where
+ * one O(V^3) pass beats repeated searches. After the constructor every
+ * {@link #pathLength()} is a lookup and {@link #path()} walks a predecessor
+ * matrix.
+ * <p>
+ * The V x V distance and predecessor matrices are flat arrays processed in
+ * square tiles (Venkataraman et al., "A blocked all-pairs shortest-paths
+ * algorithm", 2003) so the three tiles an update touches stay in cache. Phase
+ * k updates the diagonal tile k, then the other tiles of row and column k in
+ * parallel, then all remaining tiles in parallel, on a {@link ForkJoinPool}.
+ * Directed graphs may have negative edge weights; a negative cycle anywhere
+ * makes the constructor throw a {@link NegativeCycleException}.
+ *
+ * @param <T>
+ *            node type
+ */
+public class FloydWarshallShortestPath<T> implements ShortestPathAlg<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FloydWarshallShortestPath.class);
+
+    // 64 x 64 doubles is 32 KB, so three tiles fit in a typical L2 cache
+    private static final int DEFAULT_BLOCK_SIZE = 64;
+
+    private final CsrGraph<T> graph;
+    private final int n;
+    private final int blockSize;
+
+    // dist[i * n + j] from node index i to j; pred[i * n + j] is the node before
+    // j on that path, -1 if there is none
+    private final double[] dist;
+    private final int[] pred;
+
+    private int start = -1;
+    private int goal = -1;
+
+    public FloydWarshallShortestPath(ValueGraph<T, Double> graph) {
+	this(CsrGraph.compile(graph), DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    public FloydWarshallShortestPath(CsrGraph<T> graph, int blockSize, ForkJoinPool pool) {
+	super();
+	this.graph = Objects.requireNonNull(graph);
+	Objects.requireNonNull(pool);
+	if (blockSize < 1) {
+	    throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+	}
+	this.n = graph.nodeCount();
+	if ((long) n * n > Integer.MAX_VALUE - 8) {
+	    throw new IllegalArgumentException("Graph is too large for a dense matrix: " + n);
+	}
+	this.blockSize = blockSize;
+	this.dist = new double[n * n];
+	this.pred = new int[n * n];
+
+	long begin = System.nanoTime();
+	Object event = SearchEvents.beginPreprocess();
+	initialize();
+	run(pool);
+	checkNegativeCycles();
+	SearchEvents.endPreprocess(event, "FloydWarshallShortestPath", "all pairs", n, graph.edgeCount());
+	LOG.debug("AllPairs: nodes={} block={} millis={}", n, blockSize, (System.nanoTime() - begin) / 1000000);
+    }
+
+    private void initialize() {
+	Arrays.fill(dist, Double.POSITIVE_INFINITY);
+	Arrays.fill(pred, -1);
+	for (int i = 0; i < n; i++) {
+	    dist[i * n + i] = 0.0;
+	}
+	for (int u = 0; u < n; u++) {
+	    for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+		int v = graph.target(e);
+		double w = graph.weight(e);
+		if (w < 0 && !graph.isDirected()) {
+		    String msg = String.format(
+			    "Undirected graphs can't have any negative edge weights: U=%1$s V=%2$s weight=%3$f",
+			    graph.node(u), graph.node(v), w);
+		    throw new IllegalArgumentException(msg);
+		}
+		if (w < dist[u * n + v]) {
+		    dist[u * n + v] = w;
+		    pred[u * n + v] = u;
+		}
+	    }
+	}
+    }
+
+    private void run(ForkJoinPool pool) {
+	int blocks = (n + blockSize - 1) / blockSize;
+	for (int k = 0; k < blocks; k++) {
+	    int kb = k;
+	    tile(kb, kb, kb);
+
+	    // row and column k depend only on the diagonal tile
+	    invoke(pool, () -> IntStream.range(0, blocks).parallel().filter(b -> b != kb).forEach(b -> {
+		tile(kb, b, kb);
+		tile(b, kb, kb);
+	    }));
+
+	    // everything else depends only on row and column k
+	    invoke(pool, () -> IntStream.range(0, blocks * blocks).parallel().forEach(ij -> {
+		int ib = ij / blocks;
+		int jb = ij % blocks;
+		if (ib != kb && jb != kb) {
+		    tile(ib, jb, kb);
+		}
+	    }));
+	}
+    }
+
+    /**
+     * Relaxes tile (ib, jb) through every intermediate node of tile kb.
+     */
+    private void tile(int ib, int jb, int kb) {
+	int i0 = ib * blockSize;
+	int i1 = Math.min(n, i0 + blockSize);
+	int j0 = jb * blockSize;
+	int j1 = Math.min(n, j0 + blockSize);
+	int k0 = kb * blockSize;
+	int k1 = Math.min(n, k0 + blockSize);
+	for (int k = k0; k < k1; k++) {
+	    int kRow = k * n;
+	    for (int i = i0; i < i1; i++) {
+		int iRow = i * n;
+		double dik = dist[iRow + k];
+		if (dik == Double.POSITIVE_INFINITY) {
+		    continue;
+		}
+		for (int j = j0; j < j1; j++) {
+		    double alternate = dik + dist[kRow + j];
+		    if (alternate < dist[iRow + j]) {
+			dist[iRow + j] = alternate;
+			pred[iRow + j] = pred[kRow + j];
+		    }
+		}
+	    }
+	}
+    }
+
+    private static void invoke(ForkJoinPool pool, Runnable task) {
+	try {
+	    pool.submit(task).get();
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    throw new IllegalStateException("Interrupted during Floyd-Warshall", e);
+	} catch (ExecutionException e) {
+	    throw new IllegalStateException("Floyd-Warshall failed", e.getCause());
+	}
+    }
+
+    // a node on a negative cycle ends up with a negative distance to itself
+    private void checkNegativeCycles() {
+	for (int i = 0; i < n; i++) {
+	    if (dist[i * n + i] < 0) {
+		List<T> cycle = new ArrayList<>();
+		int j = i;
+		do {
+		    cycle.add(graph.node(j));
+		    j = pred[i * n + j];
+		} while (j != i && j >= 0 && cycle.size() <= n);
+		if (j != i) {
+		    cycle.clear();
+		}
+		Collections.reverse(cycle);
+		LOG.debug("NegativeCycle: {}", cycle);
+		throw new NegativeCycleException(cycle);
+	    }
+	}
+    }
+
+    @Override
+    public void setEndpoints(T start, T goal) {
+	setStart(start);
+	setGoal(goal);
+    }
+
+    @Override
+    public void setStart(T newStart) {
+	int index = graph.indexOf(newStart);
+	if (index < 0) {
+	    throw new IllegalArgumentException("Graph does not contain start node: " + newStart);
+	}
+	this.start = index;
+    }
+
+    @Override
+    public void setGoal(T newGoal) {
+	int index = graph.indexOf(newGoal);
+	if (index < 0) {
+	    throw new IllegalArgumentException("Graph does not contain goal node: " + newGoal);
+	}
+	this.goal = index;
+    }
+
+    @Override
+    public List<T> path() {
+	checkEndpoints();
+	if (goal == start) {
+	    return Arrays.asList(graph.node(start), graph.node(start));
+	}
+
+	List<T> path = new ArrayList<>();
+	if (Double.isInfinite(dist[start * n + goal])) {
+	    // goal is unreachable
+	    return path;
+	}
+
+	// walk path backward from goal to start
+	for (int j = goal; j != start; j = pred[start * n + j]) {
+	    path.add(graph.node(j));
+	}
+	path.add(graph.node(start));
+	Collections.reverse(path);
+
+	LOG.debug("Path: {}", path);
+	return path;
+    }
+
+    @Override
+    public double pathLength() {
+	checkEndpoints();
+	return dist[start * n + goal];
+    }
+
+    /**
+     * @return the number of nodes reachable from the start, which is what a
+     *         single-source search would have visited
+     */
+    @Override
+    public int countVisited() {
+	checkEndpoints();
+	int count = 0;
+	for (int j = 0; j < n; j++) {
+	    if (pred[start * n + j] >= 0) {
+		count++;
+	    }
+	}
+	return count;
+    }
+
+    /**
+     * Looks up a distance without touching the endpoints, so it is safe to call
+     * from many threads.
+     */
+    public double distance(T from, T to) {
+	int i = graph.indexOf(from);
+	int j = graph.indexOf(to);
+	if (i < 0 || j < 0) {
+	    throw new IllegalArgumentException("Graph does not contain node: " + (i < 0 ? from : to));
+	}
+	return dist[i * n + j];
+    }
+
+    private void checkEndpoints() {
+	if (start < 0) {
+	    throw new NullPointerException("start");
+	}
+	if (goal < 0) {
+	    throw new NullPointerException("goal");
+	}
+    }
+
+}
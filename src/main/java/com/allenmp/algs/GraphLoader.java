@@ -0,0 +1,237 @@
+package com.allenmp.algs;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Streams graph files straight into a {@link CsrGraph} of int node ids,
+ * without a {@link com.google.common.graph.ValueGraph} in between.
+ * <p>
+ * Every file is read twice: the first pass counts the out-degree of each node,
+ * the second fills the edge arrays in place. Only the degree counts, the CSR
+ * arrays and one read buffer are ever in memory, never an object per edge or
+ * per line.
+ */
+public class GraphLoader {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GraphLoader.class);
+
+    private interface EdgeVisitor {
+	void edge(int u, int v, double w);
+    }
+
+    /**
+     * Reads a directed graph in the 9th DIMACS challenge {@code .gr} format:
+     * a {@code p sp <nodes> <arcs>} line, then {@code a <u> <v> <weight>}
+     * lines, with {@code c} comment lines anywhere. Nodes are the ids
+     * {@code 1..nodes}.
+     */
+    public static CsrGraph<Integer> readDimacs(Path file) throws IOException {
+	long begin = System.nanoTime();
+	Degrees degrees = new Degrees();
+	int n = parseDimacs(file, (u, v, w) -> degrees.add(u - 1));
+	Csr csr = new Csr(degrees, n);
+	parseDimacs(file, (u, v, w) -> csr.add(u - 1, v - 1, w));
+	LOG.debug("Loaded: file={} nodes={} edges={} millis={}", file, n, csr.targets.length,
+		(System.nanoTime() - begin) / 1000000);
+	return CsrGraph.ofIds(true, 1, csr.offsets, csr.targets, csr.weights);
+    }
+
+    /**
+     * @return the node count from the problem line
+     */
+    private static int parseDimacs(Path file, EdgeVisitor visitor) throws IOException {
+	int n = -1;
+	try (FieldTokenizer in = new FieldTokenizer(file)) {
+	    while (in.nextLine()) {
+		int c = in.peekField();
+		if (c == 'c') {
+		    continue;
+		}
+		in.skipField();
+		if (c == 'p') {
+		    if (n >= 0) {
+			throw in.malformed("second problem line");
+		    }
+		    in.skipField();
+		    n = in.nextInt();
+		    if (n < 0) {
+			throw in.malformed("negative node count");
+		    }
+		} else if (c == 'a') {
+		    if (n < 0) {
+			throw in.malformed("arc before the problem line");
+		    }
+		    int u = in.nextInt();
+		    int v = in.nextInt();
+		    double w = in.nextDouble();
+		    if (u < 1 || u > n || v < 1 || v > n) {
+			throw in.malformed("node id out of range 1.." + n);
+		    }
+		    checkWeight(in, w);
+		    visitor.edge(u, v, w);
+		} else {
+		    throw in.malformed("unknown line type '" + (char) c + "'");
+		}
+	    }
+	}
+	if (n < 0) {
+	    throw new IOException("No problem line: " + file);
+	}
+	return n;
+    }
+
+    /**
+     * Reads node coordinates in the DIMACS {@code .co} format,
+     * {@code v <id> <x> <y>} lines, for a graph from
+     * {@link #readDimacs(Path)}.
+     *
+     * @return x and y of node index i at {@code [2 * i]} and
+     *         {@code [2 * i + 1]}, NaN for nodes the file leaves out
+     */
+    public static double[] readDimacsCoordinates(Path file, CsrGraph<Integer> graph) throws IOException {
+	int n = graph.nodeCount();
+	double[] coordinates = new double[2 * n];
+	Arrays.fill(coordinates, Double.NaN);
+	try (FieldTokenizer in = new FieldTokenizer(file)) {
+	    while (in.nextLine()) {
+		int c = in.peekField();
+		if (c == 'c' || c == 'p') {
+		    continue;
+		}
+		if (c != 'v') {
+		    throw in.malformed("unknown line type '" + (char) c + "'");
+		}
+		in.skipField();
+		int id = in.nextInt();
+		int index = graph.indexOf(id);
+		if (index < 0) {
+		    throw in.malformed("node id not in the graph: " + id);
+		}
+		coordinates[2 * index] = in.nextDouble();
+		coordinates[2 * index + 1] = in.nextDouble();
+	    }
+	}
+	return coordinates;
+    }
+
+    /**
+     * Reads an edge list of {@code u v [weight]} lines separated by
+     * whitespace, commas or semicolons, so CSV and TSV files work as they are.
+     * The weight defaults to 1. Lines starting with {@code #} or {@code %} are
+     * comments, and a first line that does not start with a number is taken as
+     * a header. Nodes are the ids {@code 0..max id}, so ids should be dense.
+     * Repeated edges are kept as parallel edges.
+     */
+    public static CsrGraph<Integer> readEdgeList(Path file, boolean directed) throws IOException {
+	long begin = System.nanoTime();
+	Degrees degrees = new Degrees();
+	parseEdgeList(file, (u, v, w) -> {
+	    degrees.add(u);
+	    if (directed) {
+		degrees.touch(v);
+	    } else if (u != v) {
+		degrees.add(v);
+	    }
+	});
+	Csr csr = new Csr(degrees, degrees.nodeCount);
+	parseEdgeList(file, (u, v, w) -> {
+	    csr.add(u, v, w);
+	    if (!directed && u != v) {
+		csr.add(v, u, w);
+	    }
+	});
+	LOG.debug("Loaded: file={} nodes={} edges={} directed={} millis={}", file, degrees.nodeCount,
+		csr.targets.length, directed, (System.nanoTime() - begin) / 1000000);
+	return CsrGraph.ofIds(directed, 0, csr.offsets, csr.targets, csr.weights);
+    }
+
+    private static void parseEdgeList(Path file, EdgeVisitor visitor) throws IOException {
+	boolean first = true;
+	try (FieldTokenizer in = new FieldTokenizer(file)) {
+	    while (in.nextLine()) {
+		int c = in.peekField();
+		if (c == '#' || c == '%') {
+		    continue;
+		}
+		if (first && !(c >= '0' && c <= '9') && c != '+') {
+		    first = false;
+		    continue;
+		}
+		first = false;
+		int u = in.nextInt();
+		int v = in.nextInt();
+		double w = in.hasField() ? in.nextDouble() : 1.0;
+		if (u < 0 || v < 0) {
+		    throw in.malformed("node ids must be non-negative");
+		}
+		checkWeight(in, w);
+		visitor.edge(u, v, w);
+	    }
+	}
+    }
+
+    private static void checkWeight(FieldTokenizer in, double w) throws IOException {
+	if (Double.isNaN(w)) {
+	    throw in.malformed("weight is not a number");
+	}
+    }
+
+    /**
+     * Out-degree per node index, grown as ids appear.
+     */
+    private static final class Degrees {
+	int[] counts = new int[1024];
+	int nodeCount = 0;
+	long edges = 0;
+
+	void add(int u) {
+	    touch(u);
+	    counts[u]++;
+	    edges++;
+	}
+
+	void touch(int u) {
+	    if (u >= counts.length) {
+		counts = Arrays.copyOf(counts, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(u + 1L, 2L * u)));
+	    }
+	    nodeCount = Math.max(nodeCount, u + 1);
+	}
+    }
+
+    /**
+     * CSR arrays sized from the degree counts and filled edge by edge.
+     */
+    private static final class Csr {
+	final int[] offsets;
+	final int[] targets;
+	final double[] weights;
+	final int[] fill;
+
+	Csr(Degrees degrees, int n) throws IOException {
+	    if (degrees.edges > Integer.MAX_VALUE - 8) {
+		throw new IOException("Too many edges for int edge indices: " + degrees.edges);
+	    }
+	    offsets = new int[n + 1];
+	    for (int u = 0; u < n; u++) {
+		offsets[u + 1] = offsets[u] + (u < degrees.counts.length ? degrees.counts[u] : 0);
+	    }
+	    targets = new int[offsets[n]];
+	    weights = new double[offsets[n]];
+	    fill = Arrays.copyOf(offsets, n);
+	    // the counts are no longer needed
+	    degrees.counts = null;
+	}
+
+	void add(int u, int v, double w) {
+	    int e = fill[u]++;
+	    targets[e] = v;
+	    weights[e] = w;
+	}
+    }
+
+}
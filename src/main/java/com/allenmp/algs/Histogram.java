@@ -0,0 +1,92 @@
+package com.allenmp.algs;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative longs, such as latencies in
+ * nanoseconds, in the style of HdrHistogram: values below 128 have a bucket
+ * each, and every power of two above that is split into 64 buckets, so a
+ * recorded value is off by less than 1/64 of itself. The whole range of long
+ * fits in under 4000 buckets.
+ * <p>
+ * {@link #record(long)} is a few atomic increments and never blocks, so many
+ * threads can record at once. {@link #snapshot()} copies the counts without
+ * stopping them, so it may miss values recorded while it runs.
+ */
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS / 2;
+    static final int BUCKETS = index(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    public void record(long value) {
+	if (value < 0) {
+	    throw new IllegalArgumentException("Negative value: " + value);
+	}
+	counts.incrementAndGet(index(value));
+	count.increment();
+	sum.add(value);
+	min.accumulate(value);
+	max.accumulate(value);
+    }
+
+    public HistogramSnapshot snapshot() {
+	long[] copy = new long[BUCKETS];
+	long total = 0;
+	int first = -1;
+	int last = -1;
+	for (int i = 0; i < BUCKETS; i++) {
+	    copy[i] = counts.get(i);
+	    total += copy[i];
+	    if (copy[i] > 0) {
+		first = first < 0 ? i : first;
+		last = i;
+	    }
+	}
+	if (total == 0) {
+	    return new HistogramSnapshot(copy, 0, 0, 0, 0);
+	}
+	// a value counted but not yet accumulated leaves min and max unset, so
+	// fall back on the bounds of the copied buckets
+	long lowest = min.get();
+	long highest = max.get();
+	if (lowest == Long.MAX_VALUE) {
+	    lowest = first == 0 ? 0 : highestValue(first - 1) + 1;
+	}
+	if (highest == Long.MIN_VALUE) {
+	    highest = highestValue(last);
+	}
+	return new HistogramSnapshot(copy, total, sum.sum(), lowest, highest);
+    }
+
+    static int index(long value) {
+	if (value < SUB_BUCKETS) {
+	    return (int) value;
+	}
+	// the top 7 bits of the value pick the bucket within its power of two
+	int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+	return SUB_BUCKETS + (shift - 1) * HALF + (int) (value >>> shift) - HALF;
+    }
+
+    /**
+     * @return the largest value that lands in the bucket
+     */
+    static long highestValue(int index) {
+	if (index < SUB_BUCKETS) {
+	    return index;
+	}
+	int shift = (index - SUB_BUCKETS) / HALF + 1;
+	long top = (index - SUB_BUCKETS) % HALF + HALF;
+	return ((top + 1) << shift) - 1;
+    }
+
+}
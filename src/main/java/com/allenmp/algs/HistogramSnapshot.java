@@ -0,0 +1,77 @@
+package com.allenmp.algs;
+
+/**
+ * Counts of a {@link Histogram} at one point in time.
+ */
+public final class HistogramSnapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long min;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long count, long sum, long min, long max) {
+	super();
+	this.counts = counts;
+	this.count = count;
+	this.sum = sum;
+	this.min = min;
+	this.max = max;
+    }
+
+    public long count() {
+	return count;
+    }
+
+    /**
+     * @return the smallest recorded value, 0 if there is none
+     */
+    public long min() {
+	return min;
+    }
+
+    /**
+     * @return the largest recorded value, 0 if there is none
+     */
+    public long max() {
+	return max;
+    }
+
+    public double mean() {
+	return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * @param percentile
+     *            in {@code [0, 100]}, e.g. 99.9
+     * @return a value at least as large as that share of the recorded values
+     *         and within 1/64 of the true percentile, 0 if nothing was
+     *         recorded
+     */
+    public long valueAtPercentile(double percentile) {
+	if (!(percentile >= 0 && percentile <= 100)) {
+	    throw new IllegalArgumentException("Percentile must be in [0, 100]: " + percentile);
+	}
+	if (count == 0) {
+	    return 0;
+	}
+	long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+	long seen = 0;
+	for (int i = 0; i < counts.length; i++) {
+	    seen += counts[i];
+	    if (seen >= rank) {
+		return Math.max(min, Math.min(max, Histogram.highestValue(i)));
+	    }
+	}
+	return max;
+    }
+
+    @Override
+    public String toString() {
+	return "count=" + count + " min=" + min + " p50=" + valueAtPercentile(50) + " p90=" + valueAtPercentile(90)
+		+ " p99=" + valueAtPercentile(99) + " p99.9=" + valueAtPercentile(99.9) + " max=" + max
+		+ " mean=" + String.format("%.1f", mean());
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.allenmp.algs;
+
+/**
+ * A {@link DistanceFunction} that can work on the node indices of one
+ * {@link CsrGraph}, so the CSR searches skip the index to node lookups and can
+ * ask for the estimates of a node's whole neighborhood at once.
+ *
+ * @param <T>
+ *            node type
+ */
+public interface IndexedDistanceFunction<T> extends DistanceFunction<T> {
+
+    /**
+     * @return the graph whose node indices the other methods take
+     */
+    CsrGraph<T> graph();
+
+    double between(int u, int t);
+
+    /**
+     * Writes the distance from the target of each outgoing edge of {@code u}
+     * to {@code t} into {@code out}, in edge order starting at
+     * {@code out[0]}.
+     *
+     * @param out
+     *            at least as long as the out-degree of {@code u}
+     */
+    default void fromNeighbors(int u, int t, double[] out) {
+	CsrGraph<T> graph = graph();
+	int start = graph.edgeStart(u);
+	for (int e = start, end = graph.edgeEnd(u); e < end; e++) {
+	    out[e - start] = between(graph.target(e), t);
+	}
+    }
+
+}
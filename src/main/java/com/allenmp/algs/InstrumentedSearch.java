@@ -0,0 +1,19 @@
+package com.allenmp.algs;
+
+/**
+ * A shortest path search that can report what each query did.
+ */
+public interface InstrumentedSearch {
+
+    /**
+     * @param listener
+     *            told about every query from now on, or null for none
+     */
+    void setSearchListener(SearchListener listener);
+
+    /**
+     * @return what the last query did, null before the first one
+     */
+    SearchStats searchStats();
+
+}
@@ -0,0 +1,182 @@
+package com.allenmp.algs;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Binary min-heap of int node indices in {@code [0, capacity)} keyed by a
+ * double priority. Tracks each node's position in the heap so that
+ * {@link #decreaseKey(int, double)} is O(log n) instead of a remove and re-add.
+ * Equal priorities are ordered by an optional secondary tie-break key.
+ */
+class IntMinHeap {
+
+    private final int[] heap;
+    private final int[] pos; // node -> heap slot, -1 if not in the heap
+    private final double[] keys; // node -> priority
+    private final double[] ties; // node -> tie-break, lower first
+    private int size = 0;
+
+    IntMinHeap(int capacity) {
+	super();
+	heap = new int[capacity];
+	pos = new int[capacity];
+	keys = new double[capacity];
+	ties = new double[capacity];
+	for (int i = 0; i < capacity; i++) {
+	    pos[i] = -1;
+	}
+    }
+
+    boolean isEmpty() {
+	return size == 0;
+    }
+
+    int size() {
+	return size;
+    }
+
+    boolean contains(int node) {
+	return pos[node] >= 0;
+    }
+
+    double key(int node) {
+	return keys[node];
+    }
+
+    void insert(int node, double key) {
+	insert(node, key, 0.0);
+    }
+
+    void insert(int node, double key, double tie) {
+	if (pos[node] >= 0) {
+	    throw new IllegalArgumentException("Node already in heap: " + node);
+	}
+	keys[node] = key;
+	ties[node] = tie;
+	heap[size] = node;
+	pos[node] = size;
+	siftUp(size++);
+    }
+
+    void decreaseKey(int node, double key) {
+	decreaseKey(node, key, 0.0);
+    }
+
+    void decreaseKey(int node, double key, double tie) {
+	if (key > keys[node]) {
+	    throw new IllegalArgumentException("New key is larger: node=" + node + " old=" + keys[node] + " new=" + key);
+	}
+	keys[node] = key;
+	ties[node] = tie;
+	siftUp(pos[node]);
+    }
+
+    /**
+     * Inserts the node, or lowers its key if it is already queued.
+     */
+    void insertOrDecrease(int node, double key) {
+	insertOrDecrease(node, key, 0.0);
+    }
+
+    void insertOrDecrease(int node, double key, double tie) {
+	if (pos[node] >= 0) {
+	    decreaseKey(node, key, tie);
+	} else {
+	    insert(node, key, tie);
+	}
+    }
+
+    /**
+     * Moves a queued node to a new key, in either direction.
+     */
+    void changeKey(int node, double key) {
+	keys[node] = key;
+	ties[node] = 0.0;
+	// at most one of these moves the node
+	siftUp(pos[node]);
+	siftDown(pos[node]);
+    }
+
+    int peek() {
+	if (size == 0) {
+	    throw new NoSuchElementException();
+	}
+	return heap[0];
+    }
+
+    /**
+     * @return the smallest key, or infinity if the heap is empty
+     */
+    double peekKey() {
+	return size == 0 ? Double.POSITIVE_INFINITY : keys[heap[0]];
+    }
+
+    int poll() {
+	if (size == 0) {
+	    throw new NoSuchElementException();
+	}
+	int min = heap[0];
+	pos[min] = -1;
+	size--;
+	if (size > 0) {
+	    int last = heap[size];
+	    heap[0] = last;
+	    pos[last] = 0;
+	    siftDown(0);
+	}
+	return min;
+    }
+
+    /**
+     * Empties the heap in O(size), not O(capacity).
+     */
+    void clear() {
+	for (int i = 0; i < size; i++) {
+	    pos[heap[i]] = -1;
+	}
+	size = 0;
+    }
+
+    private boolean less(int a, int b) {
+	return keys[a] < keys[b] || (keys[a] == keys[b] && ties[a] < ties[b]);
+    }
+
+    private void siftUp(int slot) {
+	int node = heap[slot];
+	while (slot > 0) {
+	    int parentSlot = (slot - 1) >>> 1;
+	    int parent = heap[parentSlot];
+	    if (!less(node, parent)) {
+		break;
+	    }
+	    heap[slot] = parent;
+	    pos[parent] = slot;
+	    slot = parentSlot;
+	}
+	heap[slot] = node;
+	pos[node] = slot;
+    }
+
+    private void siftDown(int slot) {
+	int node = heap[slot];
+	int half = size >>> 1;
+	while (slot < half) {
+	    int childSlot = 2 * slot + 1;
+	    int child = heap[childSlot];
+	    int rightSlot = childSlot + 1;
+	    if (rightSlot < size && less(heap[rightSlot], child)) {
+		childSlot = rightSlot;
+		child = heap[childSlot];
+	    }
+	    if (!less(child, node)) {
+		break;
+	    }
+	    heap[slot] = child;
+	    pos[child] = slot;
+	    slot = childSlot;
+	}
+	heap[slot] = node;
+	pos[node] = slot;
+    }
+
+}
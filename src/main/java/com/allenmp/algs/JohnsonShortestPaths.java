@@ -0,0 +1,234 @@
+package com.allenmp.algs;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.graph.ValueGraph;
+
+/**
+ * All-pairs shortest path distances by Johnson's algorithm, for directed
+ * {@link CsrGraph}s that may have negative edge weights.
+ * <p>
+ * One queue-based Bellman-Ford from a virtual source gives every node a
+ * potential {@code h}; {@code w(u, v) + h(u) - h(v)} is then non-negative, so
+ * each row is one Dijkstra on the reweighted edges, shifted back by
+ * {@code h(t) - h(s)}. That is O(VE log V) instead of the O(V^2 E) of running
+ * Bellman-Ford from every node. Rows are computed in parallel on a
+ * {@link ForkJoinPool}.
+ * <p>
+ * Rows and columns follow the graph's node indices ({@link CsrGraph#node(int)}).
+ * The result is either a flat in-memory matrix or, when V^2 doubles do not fit
+ * in memory, a file of rows written with positional writes.
+ *
+ * @param <T>
+ *            node type
+ */
+public class JohnsonShortestPaths<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JohnsonShortestPaths.class);
+
+    private final CsrGraph<T> graph;
+    private final ForkJoinPool pool;
+    private final SearchWorkspacePool workspaces;
+
+    // node potentials from the reweighting pass
+    private final double[] h;
+
+    public JohnsonShortestPaths(ValueGraph<T, Double> graph) {
+	this(CsrGraph.compile(graph));
+    }
+
+    public JohnsonShortestPaths(CsrGraph<T> graph) {
+	this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs the reweighting pass.
+     *
+     * @throws NegativeCycleException
+     *             if the graph has a negative cycle
+     */
+    public JohnsonShortestPaths(CsrGraph<T> graph, ForkJoinPool pool) {
+	super();
+	this.graph = Objects.requireNonNull(graph);
+	this.pool = Objects.requireNonNull(pool);
+	this.workspaces = new SearchWorkspacePool(graph, pool.getParallelism());
+
+	long begin = System.nanoTime();
+	Object event = SearchEvents.beginPreprocess();
+	this.h = new CsrBellmanFordShortestPath<>(graph, CsrBellmanFordShortestPath.Mode.QUEUE).potentials();
+	SearchEvents.endPreprocess(event, "JohnsonShortestPaths", "reweighting", graph.nodeCount(), graph.edgeCount());
+	LOG.debug("Reweighted: nodes={} millis={}", graph.nodeCount(), (System.nanoTime() - begin) / 1000000);
+    }
+
+    public CsrGraph<T> graph() {
+	return graph;
+    }
+
+    /**
+     * @return row-major distances, {@code [s * V + t]} from node index s to node
+     *         index t, infinity where t is unreachable
+     */
+    public double[] distanceMatrix() {
+	int n = graph.nodeCount();
+	if ((long) n * n > Integer.MAX_VALUE - 8) {
+	    throw new IllegalStateException("Matrix of " + n + " nodes is too large for an array, use writeTo()");
+	}
+	double[] matrix = new double[n * n];
+	forEachRow(row -> System.arraycopy(row.dist, 0, matrix, row.source * n, n));
+	return matrix;
+    }
+
+    /**
+     * @return distances from one node to every node index
+     */
+    public double[] row(T source) {
+	int s = graph.indexOf(source);
+	if (s < 0) {
+	    throw new IllegalArgumentException("Graph does not contain start node: " + source);
+	}
+	double[] dist = new double[graph.nodeCount()];
+	SearchWorkspace ws = workspaces.acquire();
+	try {
+	    search(s, ws, dist);
+	} finally {
+	    workspaces.release(ws);
+	}
+	return dist;
+    }
+
+    /**
+     * Writes the matrix to a file of V rows of V little-endian doubles, row s
+     * at byte offset {@code s * V * 8}. Rows are written in parallel at their
+     * own positions, so only one row per task is held in memory.
+     */
+    public void writeTo(Path file) throws IOException {
+	int n = graph.nodeCount();
+	try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+		StandardOpenOption.TRUNCATE_EXISTING)) {
+	    try {
+		forEachRow(row -> {
+		    if (row.bytes == null) {
+			row.bytes = ByteBuffer.allocate(n * 8).order(ByteOrder.LITTLE_ENDIAN);
+		    }
+		    ByteBuffer buffer = row.bytes;
+		    buffer.clear();
+		    buffer.asDoubleBuffer().put(row.dist);
+		    long position = (long) row.source * n * 8;
+		    try {
+			while (buffer.hasRemaining()) {
+			    position += channel.write(buffer, position);
+			}
+		    } catch (IOException e) {
+			throw new UncheckedIOException(e);
+		    }
+		});
+	    } catch (IllegalStateException e) {
+		if (e.getCause() instanceof UncheckedIOException) {
+		    throw ((UncheckedIOException) e.getCause()).getCause();
+		}
+		throw e;
+	    }
+	}
+    }
+
+    /**
+     * Reads row s of a file written by {@link #writeTo(Path)}.
+     */
+    public static double[] readRow(FileChannel channel, int nodeCount, int s) throws IOException {
+	ByteBuffer buffer = ByteBuffer.allocate(nodeCount * 8).order(ByteOrder.LITTLE_ENDIAN);
+	long position = (long) s * nodeCount * 8;
+	while (buffer.hasRemaining()) {
+	    int read = channel.read(buffer, position + buffer.position());
+	    if (read < 0) {
+		throw new IOException("Row " + s + " is past the end of the file");
+	    }
+	}
+	buffer.flip();
+	double[] row = new double[nodeCount];
+	buffer.asDoubleBuffer().get(row);
+	return row;
+    }
+
+    private static final class Row {
+	int source;
+	final double[] dist;
+	// bytes of dist, for writeTo()
+	ByteBuffer bytes;
+
+	Row(int n) {
+	    super();
+	    this.dist = new double[n];
+	}
+    }
+
+    private interface RowConsumer {
+	void accept(Row row);
+    }
+
+    private void forEachRow(RowConsumer consumer) {
+	long begin = System.nanoTime();
+	int n = graph.nodeCount();
+	// rows are borrowed per task, so none outlive this call on pool threads
+	ScratchPool<Row> rows = new ScratchPool<>(() -> new Row(n), pool.getParallelism());
+	try {
+	    pool.submit(() -> IntStream.range(0, n).parallel().forEach(s -> {
+		Row row = rows.acquire();
+		SearchWorkspace ws = workspaces.acquire();
+		try {
+		    row.source = s;
+		    search(s, ws, row.dist);
+		    consumer.accept(row);
+		} finally {
+		    workspaces.release(ws);
+		    rows.release(row);
+		}
+	    })).get();
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    throw new IllegalStateException("Interrupted while computing all-pairs distances", e);
+	} catch (ExecutionException e) {
+	    throw new IllegalStateException("All-pairs distances failed", e.getCause());
+	}
+	LOG.debug("AllPairs: nodes={} millis={}", n, (System.nanoTime() - begin) / 1000000);
+    }
+
+    /**
+     * Dijkstra on the reweighted edges from s, writing true distances to every
+     * node into dist.
+     */
+    private void search(int s, SearchWorkspace ws, double[] dist) {
+	IntMinHeap heap = ws.heap();
+	ws.update(s, 0.0, -1);
+	heap.insert(s, 0.0);
+	while (!heap.isEmpty()) {
+	    int u = heap.poll();
+	    double du = ws.dist(u);
+	    for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+		int v = graph.target(e);
+		// clamp rounding error on tight edges
+		double alternate = du + Math.max(0.0, graph.weight(e) + h[u] - h[v]);
+		if (alternate < ws.dist(v)) {
+		    ws.update(v, alternate, u);
+		    heap.insertOrDecrease(v, alternate);
+		}
+	    }
+	}
+	for (int t = 0; t < dist.length; t++) {
+	    dist[t] = ws.dist(t) - h[s] + h[t];
+	}
+    }
+
+}
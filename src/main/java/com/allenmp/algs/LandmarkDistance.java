@@ -0,0 +1,359 @@
+package com.allenmp.algs;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.graph.ValueGraph;
+
+/**
+ * ALT (A*, Landmarks, Triangle inequality) heuristic over a {@link CsrGraph}.
+ * Needs no coordinates, only edge weights.
+ * <p>
+ * For every landmark {@code L} the distances {@code d(L, v)} and
+ * {@code d(v, L)} to all nodes are precomputed, one Dijkstra each. By the
+ * triangle inequality {@code d(u, t) >= d(L, t) - d(L, u)} and
+ * {@code d(u, t) >= d(u, L) - d(t, L)}; the heuristic is the largest of these
+ * bounds over all landmarks, which is admissible and consistent. Distances are
+ * kept in flat arrays with a node's landmark distances next to each other.
+ * <p>
+ * Landmarks are picked one after another, each depending on the ones before,
+ * so selection runs sequentially; the remaining searches, and all of them when
+ * the landmarks are given, run in parallel on a {@link ForkJoinPool}.
+ *
+ * @param <T>
+ *            node type
+ */
+public class LandmarkDistance<T> implements IndexedDistanceFunction<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LandmarkDistance.class);
+
+    public enum Selection {
+	/**
+	 * Each landmark is the node farthest from the ones already picked.
+	 */
+	FARTHEST,
+	/**
+	 * Each landmark is a leaf of the subtree of a shortest path tree that the
+	 * current landmarks cover worst (Goldberg &amp; Werneck, "Computing
+	 * point-to-point shortest paths from external memory", 2005).
+	 */
+	AVOID
+    }
+
+    private final CsrGraph<T> graph;
+    private final int[] landmarks;
+    private final int k;
+
+    // from[v * k + i] = d(landmarks[i], v), to[v * k + i] = d(v, landmarks[i]);
+    // the same array on undirected graphs
+    private final double[] from;
+    private final double[] to;
+
+    private LandmarkDistance(CsrGraph<T> graph, int[] landmarks, double[] from, double[] to) {
+	super();
+	this.graph = graph;
+	this.landmarks = landmarks;
+	this.k = landmarks.length;
+	this.from = from;
+	this.to = to;
+    }
+
+    public static <T> LandmarkDistance<T> build(ValueGraph<T, Double> graph, int k) {
+	return build(CsrGraph.compile(graph), k);
+    }
+
+    public static <T> LandmarkDistance<T> build(CsrGraph<T> graph, int k) {
+	return build(graph, k, Selection.AVOID, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param k
+     *            number of landmarks, capped at the node count
+     */
+    public static <T> LandmarkDistance<T> build(CsrGraph<T> graph, int k, Selection selection, ForkJoinPool pool) {
+	Objects.requireNonNull(graph);
+	Objects.requireNonNull(selection);
+	Objects.requireNonNull(pool);
+	if (k < 1) {
+	    throw new IllegalArgumentException("Need at least one landmark: " + k);
+	}
+	long begin = System.nanoTime();
+	Object event = SearchEvents.beginPreprocess();
+
+	int n = graph.nodeCount();
+	k = Math.min(k, n);
+	int[] landmarks = new int[k];
+	double[] from = new double[n * k];
+	Arrays.fill(from, Double.POSITIVE_INFINITY);
+
+	// selection fills the forward distances as it goes
+	SearchWorkspace ws = new SearchWorkspace(n);
+	int[] order = new int[n];
+	Random random = new Random(n);
+	for (int i = 0; i < k; i++) {
+	    int landmark = selection == Selection.AVOID ? avoid(graph, landmarks, i, from, ws, order, random) : -1;
+	    if (landmark < 0) {
+		landmark = farthest(graph, landmarks, i, from);
+	    }
+	    landmarks[i] = landmark;
+	    for (int v = 0; v < n; v++) {
+		from[v * k + i] = Double.POSITIVE_INFINITY;
+	    }
+	    search(graph, landmark, false, ws, order, from, k, i);
+	}
+
+	double[] to = from;
+	if (graph.isDirected()) {
+	    to = new double[n * k];
+	    Arrays.fill(to, Double.POSITIVE_INFINITY);
+	    fill(graph, landmarks, true, to, pool);
+	}
+
+	SearchEvents.endPreprocess(event, "LandmarkDistance", "landmarks", n, graph.edgeCount());
+	LOG.debug("Landmarks: {} millis={}", landmarks, (System.nanoTime() - begin) / 1000000);
+	return new LandmarkDistance<>(graph, landmarks, from, to);
+    }
+
+    /**
+     * Uses the given landmark nodes.
+     */
+    public static <T> LandmarkDistance<T> build(CsrGraph<T> graph, T[] landmarkNodes, ForkJoinPool pool) {
+	Objects.requireNonNull(graph);
+	Objects.requireNonNull(pool);
+	if (landmarkNodes.length < 1) {
+	    throw new IllegalArgumentException("Need at least one landmark");
+	}
+
+	int n = graph.nodeCount();
+	int k = landmarkNodes.length;
+	int[] landmarks = new int[k];
+	for (int i = 0; i < k; i++) {
+	    landmarks[i] = graph.indexOf(landmarkNodes[i]);
+	    if (landmarks[i] < 0) {
+		throw new IllegalArgumentException("Graph does not contain landmark: " + landmarkNodes[i]);
+	    }
+	}
+
+	double[] from = new double[n * k];
+	Arrays.fill(from, Double.POSITIVE_INFINITY);
+	fill(graph, landmarks, false, from, pool);
+	double[] to = from;
+	if (graph.isDirected()) {
+	    to = new double[n * k];
+	    Arrays.fill(to, Double.POSITIVE_INFINITY);
+	    fill(graph, landmarks, true, to, pool);
+	}
+	return new LandmarkDistance<>(graph, landmarks, from, to);
+    }
+
+    @Override
+    public double between(T o1, T o2) {
+	int u = graph.indexOf(o1);
+	if (u < 0) {
+	    throw new IllegalArgumentException("Graph does not contain node: " + o1);
+	}
+	int t = graph.indexOf(o2);
+	if (t < 0) {
+	    throw new IllegalArgumentException("Graph does not contain node: " + o2);
+	}
+	return between(u, t);
+    }
+
+    @Override
+    public CsrGraph<T> graph() {
+	return graph;
+    }
+
+    /**
+     * Lower bound on the distance between two node indices of the graph.
+     */
+    @Override
+    public double between(int u, int t) {
+	double h = 0;
+	int ui = u * k;
+	int ti = t * k;
+	for (int i = 0; i < k; i++) {
+	    // a landmark missing either node gives infinity minus infinity, NaN,
+	    // and fails both comparisons
+	    double forward = from[ti + i] - from[ui + i];
+	    if (forward > h) {
+		h = forward;
+	    }
+	    double backward = to[ui + i] - to[ti + i];
+	    if (backward > h) {
+		h = backward;
+	    }
+	}
+	return h;
+    }
+
+    public int landmarkCount() {
+	return k;
+    }
+
+    public T landmark(int i) {
+	return graph.node(landmarks[i]);
+    }
+
+    // one Dijkstra per landmark, each with its own workspace
+    private static void fill(CsrGraph<?> graph, int[] landmarks, boolean reverse, double[] table, ForkJoinPool pool) {
+	int n = graph.nodeCount();
+	int k = landmarks.length;
+	// scratch is borrowed per landmark, so none outlives the call on pool
+	// threads
+	SearchWorkspacePool workspaces = new SearchWorkspacePool(n, pool.getParallelism());
+	ScratchPool<int[]> orders = new ScratchPool<>(() -> new int[n], pool.getParallelism());
+	try {
+	    pool.submit(() -> IntStream.range(0, k).parallel().forEach(i -> {
+		SearchWorkspace ws = workspaces.acquire();
+		int[] order = orders.acquire();
+		try {
+		    search(graph, landmarks[i], reverse, ws, order, table, k, i);
+		} finally {
+		    orders.release(order);
+		    workspaces.release(ws);
+		}
+	    })).get();
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    throw new IllegalStateException("Interrupted while computing landmark distances", e);
+	} catch (ExecutionException e) {
+	    throw new IllegalStateException("Landmark distances failed", e.getCause());
+	}
+    }
+
+    /**
+     * Full Dijkstra from source, over incoming edges if reverse, writing column i
+     * of the table.
+     *
+     * @return the number of nodes settled, in order
+     */
+    private static int search(CsrGraph<?> graph, int source, boolean reverse, SearchWorkspace ws, int[] order,
+	    double[] table, int k, int i) {
+	ws.reset();
+	IntMinHeap heap = ws.heap();
+	ws.update(source, 0.0, -1);
+	heap.insert(source, 0.0);
+	int settled = 0;
+	while (!heap.isEmpty()) {
+	    int u = heap.poll();
+	    double du = ws.dist(u);
+	    order[settled++] = u;
+	    table[u * k + i] = du;
+	    int start = reverse ? graph.inEdgeStart(u) : graph.edgeStart(u);
+	    int end = reverse ? graph.inEdgeEnd(u) : graph.edgeEnd(u);
+	    for (int e = start; e < end; e++) {
+		int v = reverse ? graph.source(e) : graph.target(e);
+		double alternate = du + (reverse ? graph.inWeight(e) : graph.weight(e));
+		if (alternate < ws.dist(v)) {
+		    ws.update(v, alternate, u);
+		    heap.insertOrDecrease(v, alternate);
+		}
+	    }
+	}
+	return settled;
+    }
+
+    // node whose distance from the nearest chosen landmark is largest
+    private static int farthest(CsrGraph<?> graph, int[] landmarks, int chosen, double[] from) {
+	int n = graph.nodeCount();
+	int k = landmarks.length;
+	if (chosen == 0) {
+	    return 0;
+	}
+	int best = -1;
+	double bestDist = -1;
+	for (int v = 0; v < n; v++) {
+	    double d = Double.POSITIVE_INFINITY;
+	    for (int i = 0; i < chosen; i++) {
+		d = Math.min(d, from[v * k + i]);
+	    }
+	    if (d > bestDist) {
+		bestDist = d;
+		best = v;
+	    }
+	}
+	return best;
+    }
+
+    /**
+     * Grows a shortest path tree from a random root and weighs each node by how
+     * far the current landmarks underestimate its distance from the root.
+     * Returns a leaf below the heaviest subtree that holds no landmark, or -1 if
+     * there is none.
+     */
+    private static int avoid(CsrGraph<?> graph, int[] landmarks, int chosen, double[] from, SearchWorkspace ws,
+	    int[] order, Random random) {
+	int n = graph.nodeCount();
+	int k = landmarks.length;
+	int root = random.nextInt(n);
+
+	// the root's distances go in the column of the landmark being picked,
+	// which is cleared right after
+	int settled = search(graph, root, false, ws, order, from, k, chosen);
+
+	double[] size = new double[n];
+	boolean[] covered = new boolean[n];
+	for (int i = 0; i < chosen; i++) {
+	    covered[landmarks[i]] = true;
+	}
+	for (int j = settled - 1; j >= 0; j--) {
+	    int v = order[j];
+	    if (!covered[v]) {
+		double dist = ws.dist(v);
+		double bound = 0;
+		for (int i = 0; i < chosen; i++) {
+		    bound = Math.max(bound, from[v * k + i] - from[root * k + i]);
+		    if (!graph.isDirected()) {
+			bound = Math.max(bound, from[root * k + i] - from[v * k + i]);
+		    }
+		}
+		size[v] += dist - bound;
+	    }
+	    int parent = ws.prev(v);
+	    if (parent >= 0) {
+		if (covered[v]) {
+		    covered[parent] = true;
+		} else {
+		    size[parent] += size[v];
+		}
+	    }
+	}
+
+	int best = -1;
+	for (int j = 0; j < settled; j++) {
+	    int v = order[j];
+	    if (!covered[v] && size[v] > 0 && (best < 0 || size[v] > size[best])) {
+		best = v;
+	    }
+	}
+	if (best < 0) {
+	    return -1;
+	}
+
+	// walk down to a leaf, following the heaviest child; children are settled
+	// after their parent
+	int[] heaviest = new int[n];
+	Arrays.fill(heaviest, -1);
+	for (int j = 0; j < settled; j++) {
+	    int v = order[j];
+	    int parent = ws.prev(v);
+	    if (parent >= 0 && !covered[v] && (heaviest[parent] < 0 || size[v] > size[heaviest[parent]])) {
+		heaviest[parent] = v;
+	    }
+	}
+	int leaf = best;
+	while (heaviest[leaf] >= 0) {
+	    leaf = heaviest[leaf];
+	}
+	return leaf;
+    }
+
+}
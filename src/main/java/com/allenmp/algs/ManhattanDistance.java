@@ -16,7 +16,7 @@ public class ManhattanDistance implements DistanceFunction<Node> {
 	    throw new IllegalArgumentException("Node coords have different dimensionality (" + dim1 + " vs " + dim2 + ")");
 	}
 	
-	// d = sqrt( (x1-x2)^2 + (y1-y2)^2 + ... )
+	// d = |x1-x2| + |y1-y2| + ...
 	double d = 0;
 	for (int i=0; i<dim1; i++) {
 	    d += Math.abs(c1[i] - c2[i]);
@@ -0,0 +1,347 @@
+package com.allenmp.algs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link CsrGraph} read straight from a memory-mapped graph file, so opening
+ * even a large graph costs a few page faults instead of building and copying a
+ * {@link com.google.common.graph.ValueGraph}. Mappings are read-only, so
+ * processes opening the same file share it through the page cache.
+ * <p>
+ * Nodes are the indices {@code 0..nodeCount()-1} themselves. The file is
+ * little-endian:
+ *
+ * <pre>
+ * header    magic "CSRG", version, flags, nodeCount, edgeCount, 3 reserved ints
+ * offsets   nodeCount + 1 ints
+ * targets   edgeCount ints
+ * weights   edgeCount doubles
+ * (directed only)
+ * inOffsets nodeCount + 1 ints
+ * sources   edgeCount ints
+ * inWeights edgeCount doubles
+ * (with coordinates only)
+ * coords    nodeCount (x, y) pairs of doubles
+ * </pre>
+ *
+ * Each section starts at a multiple of 8 bytes. Each section is mapped on its
+ * own, so no section may exceed 2 GB.
+ */
+public class MappedCsrGraph extends CsrGraph<Integer> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MappedCsrGraph.class);
+
+    static final int MAGIC = 0x47525343; // "CSRG" in little-endian
+    static final int VERSION = 1;
+    static final int DIRECTED = 1;
+    static final int COORDINATES = 2;
+    static final int HEADER_BYTES = 32;
+
+    private final int nodeCount;
+    private final int edgeCount;
+
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final DoubleBuffer weights;
+    private final IntBuffer inOffsets;
+    private final IntBuffer sources;
+    private final DoubleBuffer inWeights;
+    private final DoubleBuffer coords;
+
+    private MappedCsrGraph(FileChannel channel, boolean directed, int flags, int nodeCount, int edgeCount)
+	    throws IOException {
+	super(directed);
+	this.nodeCount = nodeCount;
+	this.edgeCount = edgeCount;
+	long position = HEADER_BYTES;
+	this.offsets = mapInts(channel, position, nodeCount + 1);
+	position = align(position + 4L * (nodeCount + 1));
+	this.targets = mapInts(channel, position, edgeCount);
+	position = align(position + 4L * edgeCount);
+	this.weights = mapDoubles(channel, position, edgeCount);
+	position += 8L * edgeCount;
+	if (directed) {
+	    this.inOffsets = mapInts(channel, position, nodeCount + 1);
+	    position = align(position + 4L * (nodeCount + 1));
+	    this.sources = mapInts(channel, position, edgeCount);
+	    position = align(position + 4L * edgeCount);
+	    this.inWeights = mapDoubles(channel, position, edgeCount);
+	    position += 8L * edgeCount;
+	} else {
+	    this.inOffsets = offsets;
+	    this.sources = targets;
+	    this.inWeights = weights;
+	}
+	this.coords = (flags & COORDINATES) != 0 ? mapDoubles(channel, position, 2L * nodeCount) : null;
+    }
+
+    /**
+     * Maps a graph file. The mapping stays valid after this returns and is
+     * released when the graph is garbage collected.
+     *
+     * @throws IOException
+     *             if the file is not a graph file of a supported version or
+     *             is truncated
+     */
+    public static MappedCsrGraph open(Path file) throws IOException {
+	long begin = System.nanoTime();
+	try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+	    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+	    while (header.hasRemaining()) {
+		if (channel.read(header, header.position()) < 0) {
+		    throw new IOException("Not a graph file, too short: " + file);
+		}
+	    }
+	    header.flip();
+	    if (header.getInt() != MAGIC) {
+		throw new IOException("Not a graph file: " + file);
+	    }
+	    int version = header.getInt();
+	    if (version != VERSION) {
+		throw new IOException("Unsupported graph file version " + version + ": " + file);
+	    }
+	    int flags = header.getInt();
+	    int nodeCount = header.getInt();
+	    int edgeCount = header.getInt();
+	    if (nodeCount < 0 || edgeCount < 0) {
+		throw new IOException("Corrupt graph file header: " + file);
+	    }
+	    boolean directed = (flags & DIRECTED) != 0;
+	    long expected = fileSize(nodeCount, edgeCount, directed, (flags & COORDINATES) != 0);
+	    if (channel.size() < expected) {
+		throw new IOException("Graph file is truncated, expected " + expected + " bytes: " + file);
+	    }
+	    MappedCsrGraph graph = new MappedCsrGraph(channel, directed, flags, nodeCount, edgeCount);
+	    LOG.debug("Mapped: file={} nodes={} edges={} directed={} millis={}", file, nodeCount, edgeCount, directed,
+		    (System.nanoTime() - begin) / 1000000);
+	    return graph;
+	}
+    }
+
+    /**
+     * Writes a graph file with node indices in place of the graph's nodes.
+     *
+     * @param coordinates
+     *            x and y of node index i at {@code [2 * i]} and
+     *            {@code [2 * i + 1]}, or null
+     */
+    public static void write(CsrGraph<?> graph, double[] coordinates, Path file) throws IOException {
+	Objects.requireNonNull(graph);
+	int n = graph.nodeCount();
+	int m = graph.edgeCount();
+	if (coordinates != null && coordinates.length != 2 * n) {
+	    throw new IllegalArgumentException("Expected " + 2 * n + " coordinates: " + coordinates.length);
+	}
+	boolean directed = graph.isDirected();
+	int flags = (directed ? DIRECTED : 0) | (coordinates != null ? COORDINATES : 0);
+
+	try (SectionWriter out = new SectionWriter(file)) {
+	    out.putInt(MAGIC);
+	    out.putInt(VERSION);
+	    out.putInt(flags);
+	    out.putInt(n);
+	    out.putInt(m);
+	    out.pad(HEADER_BYTES);
+
+	    for (int u = 0; u < n; u++) {
+		out.putInt(graph.edgeStart(u));
+	    }
+	    out.putInt(m);
+	    out.pad(8);
+	    for (int e = 0; e < m; e++) {
+		out.putInt(graph.target(e));
+	    }
+	    out.pad(8);
+	    for (int e = 0; e < m; e++) {
+		out.putDouble(graph.weight(e));
+	    }
+	    if (directed) {
+		for (int v = 0; v < n; v++) {
+		    out.putInt(graph.inEdgeStart(v));
+		}
+		out.putInt(m);
+		out.pad(8);
+		for (int e = 0; e < m; e++) {
+		    out.putInt(graph.source(e));
+		}
+		out.pad(8);
+		for (int e = 0; e < m; e++) {
+		    out.putDouble(graph.inWeight(e));
+		}
+	    }
+	    if (coordinates != null) {
+		for (double c : coordinates) {
+		    out.putDouble(c);
+		}
+	    }
+	}
+	LOG.debug("Wrote: file={} nodes={} edges={} directed={}", file, n, m, directed);
+    }
+
+    static long fileSize(int nodeCount, int edgeCount, boolean directed, boolean coordinates) {
+	long adjacency = align(align(4L * (nodeCount + 1)) + 4L * edgeCount) + 8L * edgeCount;
+	return HEADER_BYTES + adjacency * (directed ? 2 : 1) + (coordinates ? 16L * nodeCount : 0);
+    }
+
+    private static long align(long position) {
+	return (position + 7) & ~7L;
+    }
+
+    private static IntBuffer mapInts(FileChannel channel, long position, long count) throws IOException {
+	return map(channel, position, 4L * count).asIntBuffer();
+    }
+
+    private static DoubleBuffer mapDoubles(FileChannel channel, long position, long count) throws IOException {
+	return map(channel, position, 8L * count).asDoubleBuffer();
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+	if (size > Integer.MAX_VALUE) {
+	    throw new IOException("Graph file section of " + size + " bytes is too large to map");
+	}
+	return channel.map(MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Buffered sequential little-endian writes.
+     */
+    private static final class SectionWriter implements Closeable {
+	private final FileChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+	private long flushed = 0;
+
+	SectionWriter(Path file) throws IOException {
+	    channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+		    StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	void putInt(int value) throws IOException {
+	    if (buffer.remaining() < 4) {
+		flush();
+	    }
+	    buffer.putInt(value);
+	}
+
+	void putDouble(double value) throws IOException {
+	    if (buffer.remaining() < 8) {
+		flush();
+	    }
+	    buffer.putDouble(value);
+	}
+
+	/**
+	 * Writes zero ints up to the next multiple of the alignment.
+	 */
+	void pad(int alignment) throws IOException {
+	    while ((flushed + buffer.position()) % alignment != 0) {
+		putInt(0);
+	    }
+	}
+
+	private void flush() throws IOException {
+	    buffer.flip();
+	    while (buffer.hasRemaining()) {
+		flushed += channel.write(buffer);
+	    }
+	    buffer.clear();
+	}
+
+	@Override
+	public void close() throws IOException {
+	    try {
+		flush();
+	    } finally {
+		channel.close();
+	    }
+	}
+    }
+
+    public boolean hasCoordinates() {
+	return coords != null;
+    }
+
+    public double x(int node) {
+	return coords.get(2 * node);
+    }
+
+    public double y(int node) {
+	return coords.get(2 * node + 1);
+    }
+
+    @Override
+    public int nodeCount() {
+	return nodeCount;
+    }
+
+    @Override
+    public int edgeCount() {
+	return edgeCount;
+    }
+
+    @Override
+    public int indexOf(Integer node) {
+	return node != null && node >= 0 && node < nodeCount ? node : -1;
+    }
+
+    @Override
+    public Integer node(int index) {
+	if (index < 0 || index >= nodeCount) {
+	    throw new IndexOutOfBoundsException("Node index " + index + " of " + nodeCount);
+	}
+	return index;
+    }
+
+    @Override
+    public int edgeStart(int node) {
+	return offsets.get(node);
+    }
+
+    @Override
+    public int edgeEnd(int node) {
+	return offsets.get(node + 1);
+    }
+
+    @Override
+    public int target(int edge) {
+	return targets.get(edge);
+    }
+
+    @Override
+    public double weight(int edge) {
+	return weights.get(edge);
+    }
+
+    @Override
+    public int inEdgeStart(int node) {
+	return inOffsets.get(node);
+    }
+
+    @Override
+    public int inEdgeEnd(int node) {
+	return inOffsets.get(node + 1);
+    }
+
+    @Override
+    public int source(int inEdge) {
+	return sources.get(inEdge);
+    }
+
+    @Override
+    public double inWeight(int inEdge) {
+	return inWeights.get(inEdge);
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.allenmp.algs;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the queries of another {@link ShortestPathAlg} into a
+ * {@link MetricsRegistry}, under names prefixed with the algorithm name:
+ * <ul>
+ * <li>{@code <name>.latency} histogram of nanoseconds per answered query</li>
+ * <li>{@code <name>.settled} histogram of nodes settled per query, if the
+ * algorithm is an {@link InstrumentedSearch}</li>
+ * <li>{@code <name>.queries} counter</li>
+ * <li>{@code <name>.unreachable} counter of queries whose goal was not
+ * reachable</li>
+ * <li>{@code <name>.negativeCycles} counter of queries rejected with a
+ * {@link NegativeCycleException}, which is rethrown</li>
+ * </ul>
+ * A query is the first {@link #path()}, {@link #pathLength()} or
+ * {@link #countVisited()} after the endpoints change; later calls read the
+ * cached answer and are not recorded, and neither are calls after setting the
+ * same endpoints again. Like the algorithm it wraps, an instance
+ * is for one thread at a time, but any number of them may share a registry.
+ *
+ * @param <T>
+ *            node type
+ */
+public class MeteredShortestPath<T> implements ShortestPathAlg<T> {
+
+    private final ShortestPathAlg<T> alg;
+    private final Histogram latency;
+    private final Histogram settled;
+    private final LongAdder queries;
+    private final LongAdder unreachable;
+    private final LongAdder negativeCycles;
+
+    private T start;
+    private T goal;
+    private boolean recorded = false;
+    private SearchStats lastStats;
+
+    /**
+     * Records under the simple class name of the algorithm.
+     */
+    public MeteredShortestPath(ShortestPathAlg<T> alg, MetricsRegistry registry) {
+	this(alg, registry, alg.getClass().getSimpleName());
+    }
+
+    public MeteredShortestPath(ShortestPathAlg<T> alg, MetricsRegistry registry, String name) {
+	super();
+	this.alg = Objects.requireNonNull(alg);
+	Objects.requireNonNull(registry);
+	Objects.requireNonNull(name);
+	this.latency = registry.histogram(name + ".latency");
+	this.settled = alg instanceof InstrumentedSearch ? registry.histogram(name + ".settled") : null;
+	this.queries = registry.counter(name + ".queries");
+	this.unreachable = registry.counter(name + ".unreachable");
+	this.negativeCycles = registry.counter(name + ".negativeCycles");
+    }
+
+    @Override
+    public void setStart(T start) {
+	alg.setStart(start);
+	endpoints(start, goal);
+    }
+
+    @Override
+    public void setGoal(T goal) {
+	alg.setGoal(goal);
+	endpoints(start, goal);
+    }
+
+    @Override
+    public void setEndpoints(T start, T goal) {
+	alg.setEndpoints(start, goal);
+	endpoints(start, goal);
+    }
+
+    @Override
+    public List<T> path() {
+	if (recorded) {
+	    return alg.path();
+	}
+	long begin = System.nanoTime();
+	List<T> path;
+	try {
+	    path = alg.path();
+	} catch (NegativeCycleException e) {
+	    rejected();
+	    throw e;
+	}
+	finish(begin, path.isEmpty());
+	return path;
+    }
+
+    @Override
+    public double pathLength() {
+	if (recorded) {
+	    return alg.pathLength();
+	}
+	long begin = System.nanoTime();
+	double length;
+	try {
+	    length = alg.pathLength();
+	} catch (NegativeCycleException e) {
+	    rejected();
+	    throw e;
+	}
+	finish(begin, Double.isInfinite(length));
+	return length;
+    }
+
+    @Override
+    public int countVisited() {
+	if (recorded) {
+	    return alg.countVisited();
+	}
+	long begin = System.nanoTime();
+	int visited;
+	double length;
+	try {
+	    visited = alg.countVisited();
+	    length = alg.pathLength();
+	} catch (NegativeCycleException e) {
+	    rejected();
+	    throw e;
+	}
+	finish(begin, Double.isInfinite(length));
+	return visited;
+    }
+
+    public ShortestPathAlg<T> delegate() {
+	return alg;
+    }
+
+    private void endpoints(T newStart, T newGoal) {
+	if (!Objects.equals(start, newStart) || !Objects.equals(goal, newGoal)) {
+	    recorded = false;
+	}
+	start = newStart;
+	goal = newGoal;
+    }
+
+    private void finish(long begin, boolean noPath) {
+	latency.record(System.nanoTime() - begin);
+	queries.increment();
+	if (noPath) {
+	    unreachable.increment();
+	}
+	if (settled != null) {
+	    // trivial queries may answer without a search, leaving the last stats
+	    SearchStats stats = ((InstrumentedSearch) alg).searchStats();
+	    if (stats != null && stats != lastStats) {
+		settled.record(stats.settled());
+		lastStats = stats;
+	    }
+	}
+	recorded = true;
+    }
+
+    private void rejected() {
+	queries.increment();
+	negativeCycles.increment();
+	// the same endpoints would throw again, so do not count them twice
+	recorded = true;
+    }
+
+}
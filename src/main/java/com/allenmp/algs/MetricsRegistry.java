@@ -0,0 +1,39 @@
+package com.allenmp.algs;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Named {@link Histogram}s and counters shared by any number of threads, such
+ * as the ones {@link MeteredShortestPath} records into. Metrics are created on
+ * first use and live as long as the registry.
+ */
+public class MetricsRegistry {
+
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public Histogram histogram(String name) {
+	return histograms.computeIfAbsent(Objects.requireNonNull(name), n -> new Histogram());
+    }
+
+    public LongAdder counter(String name) {
+	return counters.computeIfAbsent(Objects.requireNonNull(name), n -> new LongAdder());
+    }
+
+    /**
+     * Copies every metric without pausing recording.
+     */
+    public MetricsSnapshot snapshot() {
+	Map<String, HistogramSnapshot> h = new TreeMap<>();
+	histograms.forEach((name, histogram) -> h.put(name, histogram.snapshot()));
+	Map<String, Long> c = new TreeMap<>();
+	counters.forEach((name, counter) -> c.put(name, counter.sum()));
+	return new MetricsSnapshot(h, c);
+    }
+
+}
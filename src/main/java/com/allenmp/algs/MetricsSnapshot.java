@@ -0,0 +1,55 @@
+package com.allenmp.algs;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Every metric of a {@link MetricsRegistry} at one point in time, sorted by
+ * name.
+ */
+public final class MetricsSnapshot {
+
+    private final Map<String, HistogramSnapshot> histograms;
+    private final Map<String, Long> counters;
+
+    MetricsSnapshot(Map<String, HistogramSnapshot> histograms, Map<String, Long> counters) {
+	super();
+	this.histograms = Collections.unmodifiableMap(histograms);
+	this.counters = Collections.unmodifiableMap(counters);
+    }
+
+    public Map<String, HistogramSnapshot> histograms() {
+	return histograms;
+    }
+
+    public Map<String, Long> counters() {
+	return counters;
+    }
+
+    /**
+     * @return the histogram, or null if nothing was recorded under the name
+     */
+    public HistogramSnapshot histogram(String name) {
+	return histograms.get(name);
+    }
+
+    /**
+     * @return the counter, 0 if nothing was counted under the name
+     */
+    public long counter(String name) {
+	Long value = counters.get(name);
+	return value == null ? 0 : value;
+    }
+
+    /**
+     * One metric per line.
+     */
+    @Override
+    public String toString() {
+	StringBuilder sb = new StringBuilder();
+	histograms.forEach((name, h) -> sb.append(name).append(' ').append(h).append('\n'));
+	counters.forEach((name, c) -> sb.append(name).append(" count=").append(c).append('\n'));
+	return sb.toString();
+    }
+
+}
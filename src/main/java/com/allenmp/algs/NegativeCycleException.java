@@ -0,0 +1,29 @@
+package com.allenmp.algs;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown when a shortest path is undefined because a negative-weight cycle is
+ * reachable from the start.
+ */
+public class NegativeCycleException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<?> cycle;
+
+    public NegativeCycleException(List<?> cycle) {
+	super("Graph contains a negative-weight cycle" + (cycle.isEmpty() ? "" : ": " + cycle));
+	this.cycle = Collections.unmodifiableList(cycle);
+    }
+
+    /**
+     * @return the nodes of one negative cycle in edge order, or an empty list if
+     *         it could not be recovered
+     */
+    public List<?> getCycle() {
+	return cycle;
+    }
+
+}
@@ -0,0 +1,171 @@
+package com.allenmp.algs;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary min-heap of graph nodes keyed by a double priority, for the
+ * algorithms that work on a {@code ValueGraph} directly. Like
+ * {@link IntMinHeap} it tracks each node's heap slot, so
+ * {@link #decreaseKey(Object, double)} is O(log n) rather than the linear
+ * {@code remove} of a {@link java.util.PriorityQueue}. Equal priorities are
+ * ordered by an optional secondary tie-break key.
+ *
+ * @param <T>
+ *            node type
+ */
+class NodeMinHeap<T> {
+
+    private Object[] heap = new Object[16];
+    private double[] keys = new double[16]; // slot -> priority
+    private double[] ties = new double[16]; // slot -> tie-break, lower first
+    private final Map<T, Integer> pos = new HashMap<>(); // node -> slot
+    private int size = 0;
+
+    boolean isEmpty() {
+	return size == 0;
+    }
+
+    int size() {
+	return size;
+    }
+
+    boolean contains(T node) {
+	return pos.containsKey(node);
+    }
+
+    void insert(T node, double key) {
+	insert(node, key, 0.0);
+    }
+
+    void insert(T node, double key, double tie) {
+	if (pos.containsKey(node)) {
+	    throw new IllegalArgumentException("Node already in heap: " + node);
+	}
+	if (size == heap.length) {
+	    int capacity = size * 2;
+	    Object[] newHeap = new Object[capacity];
+	    double[] newKeys = new double[capacity];
+	    double[] newTies = new double[capacity];
+	    System.arraycopy(heap, 0, newHeap, 0, size);
+	    System.arraycopy(keys, 0, newKeys, 0, size);
+	    System.arraycopy(ties, 0, newTies, 0, size);
+	    heap = newHeap;
+	    keys = newKeys;
+	    ties = newTies;
+	}
+	siftUp(size++, node, key, tie);
+    }
+
+    void decreaseKey(T node, double key) {
+	decreaseKey(node, key, 0.0);
+    }
+
+    void decreaseKey(T node, double key, double tie) {
+	Integer slot = pos.get(node);
+	if (slot == null) {
+	    throw new IllegalArgumentException("Node not in heap: " + node);
+	}
+	if (key > keys[slot]) {
+	    throw new IllegalArgumentException("New key is larger: node=" + node + " old=" + keys[slot] + " new=" + key);
+	}
+	siftUp(slot, node, key, tie);
+    }
+
+    /**
+     * Inserts the node, or lowers its key if it is already queued.
+     */
+    void insertOrDecrease(T node, double key) {
+	insertOrDecrease(node, key, 0.0);
+    }
+
+    void insertOrDecrease(T node, double key, double tie) {
+	if (pos.containsKey(node)) {
+	    decreaseKey(node, key, tie);
+	} else {
+	    insert(node, key, tie);
+	}
+    }
+
+    @SuppressWarnings("unchecked")
+    T poll() {
+	if (size == 0) {
+	    throw new NoSuchElementException();
+	}
+	T min = (T) heap[0];
+	pos.remove(min);
+	size--;
+	if (size > 0) {
+	    T last = (T) heap[size];
+	    double lastKey = keys[size];
+	    double lastTie = ties[size];
+	    heap[size] = null;
+	    siftDown(0, last, lastKey, lastTie);
+	} else {
+	    heap[0] = null;
+	}
+	return min;
+    }
+
+    void clear() {
+	for (int i = 0; i < size; i++) {
+	    heap[i] = null;
+	}
+	pos.clear();
+	size = 0;
+    }
+
+    private void siftUp(int slot, T node, double key, double tie) {
+	while (slot > 0) {
+	    int parentSlot = (slot - 1) >>> 1;
+	    if (!less(key, tie, parentSlot)) {
+		break;
+	    }
+	    move(parentSlot, slot);
+	    slot = parentSlot;
+	}
+	set(slot, node, key, tie);
+    }
+
+    private void siftDown(int slot, T node, double key, double tie) {
+	int half = size >>> 1;
+	while (slot < half) {
+	    int childSlot = 2 * slot + 1;
+	    int rightSlot = childSlot + 1;
+	    if (rightSlot < size && less(keys[rightSlot], ties[rightSlot], childSlot)) {
+		childSlot = rightSlot;
+	    }
+	    if (!less(keys[childSlot], ties[childSlot], key, tie)) {
+		break;
+	    }
+	    move(childSlot, slot);
+	    slot = childSlot;
+	}
+	set(slot, node, key, tie);
+    }
+
+    private boolean less(double key, double tie, int slot) {
+	return less(key, tie, keys[slot], ties[slot]);
+    }
+
+    private static boolean less(double key1, double tie1, double key2, double tie2) {
+	return key1 < key2 || (key1 == key2 && tie1 < tie2);
+    }
+
+    private void set(int slot, T node, double key, double tie) {
+	heap[slot] = node;
+	keys[slot] = key;
+	ties[slot] = tie;
+	pos.put(node, slot);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void move(int from, int to) {
+	heap[to] = heap[from];
+	keys[to] = keys[from];
+	ties[to] = ties[from];
+	pos.put((T) heap[to], to);
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.allenmp.algs;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for turning a finished search into a node list, including
+ * unpacking contraction hierarchy shortcuts.
+ * <p>
+ * By default only recorded when it takes at least 1 ms.
+ */
+@Name("com.allenmp.algs.PathUnpack")
+@Label("Shortest Path Unpacking")
+@Description("Walking predecessors back from the goal to build the path")
+@Category({ "Algorithms", "Shortest Path" })
+@StackTrace(false)
+@Threshold("1 ms")
+final class PathUnpackEvent extends jdk.jfr.Event {
+
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Path Nodes")
+    int pathNodes;
+
+}
@@ -0,0 +1,32 @@
+package com.allenmp.algs;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one-off work done before queries can run, such as compiling a
+ * {@link CsrGraph} or contracting a {@link ContractionHierarchy}.
+ */
+@Name("com.allenmp.algs.Preprocess")
+@Label("Graph Preprocessing")
+@Description("Work done once per graph before answering queries")
+@Category({ "Algorithms", "Shortest Path" })
+@StackTrace(false)
+final class PreprocessEvent extends jdk.jfr.Event {
+
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Graph Nodes")
+    int nodeCount;
+
+    @Label("Graph Edges")
+    int edgeCount;
+
+}
@@ -1,5 +1,152 @@
 package com.allenmp.algs;
 
-public class PrimsSpanningTree {
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.ValueGraph;
+
+/**
+ * Prim's algorithm on a {@link CsrGraph}, grown from a new root in each
+ * component. The cheapest known edge into the tree is kept per node index in
+ * primitive arrays and the frontier is an indexed heap with decrease-key, so
+ * a run is O(E log V) and allocates only its arrays.
+ *
+ * @param <T>
+ *            node type
+ */
+public class PrimsSpanningTree<T> implements SpanningTreeAlg<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PrimsSpanningTree.class);
+
+    private final CsrGraph<T> graph;
+    private boolean calc = false;
+
+    // tree edges as node indices in graph direction, and their weights
+    private int[] treeFrom;
+    private int[] treeTo;
+    private int edgeCount;
+    private double totalWeight;
+    private int treeCount;
+
+    // Working state of a calculation, per node index: the cheapest edge from
+    // the tree, the tree node it leaves from and whether it points into the
+    // tree in the graph
+    private double[] best;
+    private int[] parent;
+    private boolean[] reversed;
+    private boolean[] inTree;
+    private IntMinHeap frontier;
+
+    public PrimsSpanningTree(ValueGraph<T, Double> graph) {
+	this(CsrGraph.compile(graph));
+    }
+
+    public PrimsSpanningTree(CsrGraph<T> graph) {
+	super();
+	this.graph = Objects.requireNonNull(graph);
+    }
+
+    @Override
+    public List<EndpointPair<T>> edges() {
+	calculate();
+	List<EndpointPair<T>> edges = new ArrayList<>(edgeCount);
+	for (int i = 0; i < edgeCount; i++) {
+	    T u = graph.node(treeFrom[i]);
+	    T v = graph.node(treeTo[i]);
+	    edges.add(graph.isDirected() ? EndpointPair.ordered(u, v) : EndpointPair.unordered(u, v));
+	}
+	return edges;
+    }
+
+    @Override
+    public double totalWeight() {
+	calculate();
+	return totalWeight;
+    }
+
+    @Override
+    public int countTrees() {
+	calculate();
+	return treeCount;
+    }
+
+    private void calculate() {
+	if (calc) {
+	    return;
+	}
+	long begin = System.nanoTime();
+
+	int n = graph.nodeCount();
+	boolean directed = graph.isDirected();
+
+	best = new double[n];
+	parent = new int[n];
+	reversed = new boolean[n];
+	inTree = new boolean[n];
+	frontier = new IntMinHeap(n);
+	Arrays.fill(best, Double.POSITIVE_INFINITY);
+	Arrays.fill(parent, -1);
+
+	treeFrom = new int[Math.max(0, n - 1)];
+	treeTo = new int[Math.max(0, n - 1)];
+	edgeCount = 0;
+	totalWeight = 0;
+	treeCount = 0;
+
+	for (int root = 0; root < n; root++) {
+	    if (inTree[root]) {
+		continue;
+	    }
+	    treeCount++;
+	    frontier.insert(root, 0.0);
+
+	    while (!frontier.isEmpty()) {
+		int u = frontier.poll();
+		inTree[u] = true;
+		if (parent[u] >= 0) {
+		    treeFrom[edgeCount] = reversed[u] ? u : parent[u];
+		    treeTo[edgeCount] = reversed[u] ? parent[u] : u;
+		    edgeCount++;
+		    totalWeight += best[u];
+		}
+
+		for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+		    offer(u, graph.target(e), graph.weight(e), false);
+		}
+		// a directed graph's in-edges are the other half of its undirected
+		// edges
+		if (directed) {
+		    for (int e = graph.inEdgeStart(u), end = graph.inEdgeEnd(u); e < end; e++) {
+			offer(u, graph.source(e), graph.inWeight(e), true);
+		    }
+		}
+	    }
+	}
+
+	best = null;
+	parent = null;
+	reversed = null;
+	inTree = null;
+	frontier = null;
+	calc = true;
+	LOG.debug("SpanningForest: nodes={} edges={} trees={} weight={} millis={}", n, edgeCount, treeCount,
+		totalWeight, (System.nanoTime() - begin) / 1000000);
+    }
+
+    // records u -> v as the cheapest edge to v if it is
+    private void offer(int u, int v, double w, boolean pointsToU) {
+	if (!inTree[v] && w < best[v]) {
+	    best[v] = w;
+	    parent[v] = u;
+	    reversed[v] = pointsToU;
+	    frontier.insertOrDecrease(v, w);
+	}
+    }
 
 }
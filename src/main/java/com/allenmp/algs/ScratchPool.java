@@ -0,0 +1,61 @@
+package com.allenmp.algs;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, lock-free pool of per-task scratch objects, the counterpart of
+ * {@link SearchWorkspacePool} for buffers other than workspaces. Tasks on a
+ * {@link java.util.concurrent.ForkJoinPool} borrow one and release it in a
+ * finally block, so nothing stays attached to the pool's threads once the
+ * work is done.
+ *
+ * @param <T>
+ *            scratch object type
+ */
+class ScratchPool<T> {
+
+    private final Supplier<T> factory;
+    private final AtomicReferenceArray<T> slots;
+
+    /**
+     * @param factory
+     *            creates a scratch object when none is idle
+     * @param maxIdle
+     *            number of released objects kept for reuse
+     */
+    ScratchPool(Supplier<T> factory, int maxIdle) {
+	super();
+	if (maxIdle < 1) {
+	    throw new IllegalArgumentException("maxIdle must be positive: " + maxIdle);
+	}
+	this.factory = Objects.requireNonNull(factory);
+	this.slots = new AtomicReferenceArray<>(maxIdle);
+    }
+
+    /**
+     * @return an idle object, or a new one if none is idle
+     */
+    T acquire() {
+	for (int i = 0; i < slots.length(); i++) {
+	    T item = slots.get(i);
+	    if (item != null && slots.compareAndSet(i, item, null)) {
+		return item;
+	    }
+	}
+	return factory.get();
+    }
+
+    /**
+     * Returns an object to the pool. It is dropped if the pool is full.
+     */
+    void release(T item) {
+	for (int i = 0; i < slots.length(); i++) {
+	    if (slots.get(i) == null && slots.compareAndSet(i, null, item)) {
+		return;
+	    }
+	}
+    }
+
+}
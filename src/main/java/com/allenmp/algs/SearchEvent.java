@@ -0,0 +1,53 @@
+package com.allenmp.algs;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event spanning one shortest path query, from the first call that needs
+ * an answer to the end of the search.
+ * <p>
+ * The algorithms only reach it through {@link SearchEvents}, so they still
+ * load without {@code jdk.jfr}. Its default threshold of 10 ms keeps a
+ * recording that does not name it to the slow queries, so continuous
+ * profiling does not pay for every query; a JFR settings file can lower the
+ * threshold or disable it by name.
+ */
+@Name("com.allenmp.algs.Search")
+@Label("Shortest Path Search")
+@Description("One shortest path query, including setup")
+@Category({ "Algorithms", "Shortest Path" })
+@StackTrace(false)
+@Threshold("10 ms")
+final class SearchEvent extends jdk.jfr.Event {
+
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Graph Nodes")
+    int nodeCount;
+
+    @Label("Start")
+    String start;
+
+    @Label("Goal")
+    String goal;
+
+    @Label("Resumed")
+    @Description("Answered from the previous search from the same start")
+    boolean resumed;
+
+    @Label("Settled")
+    long settled;
+
+    @Label("Relaxations")
+    long relaxations;
+
+    @Label("Reached")
+    int reached;
+
+}
@@ -0,0 +1,120 @@
+package com.allenmp.algs;
+
+/**
+ * The one place the algorithms touch the JFR events of this package
+ * ({@link SearchEvent}, {@link SearchSetupEvent}, {@link PathUnpackEvent},
+ * {@link PreprocessEvent}).
+ * <p>
+ * Whether {@code jdk.jfr} is present is checked once. Without it, as on Java 8
+ * before 8u262 or on a runtime image built without the module, every
+ * {@code begin} method returns null, every other method does nothing, and no
+ * event class is ever loaded. Events are handed around as {@code Object} so
+ * the algorithm classes never name an event type either. Callers follow the
+ * usual JFR idiom of filling in fields only if {@link #shouldCommit(Object)},
+ * so a disabled event costs an allocation the JIT removes and one check.
+ */
+final class SearchEvents {
+
+    private static final boolean AVAILABLE = available();
+
+    private SearchEvents() {
+	super();
+    }
+
+    private static boolean available() {
+	try {
+	    Class.forName("jdk.jfr.Event", false, SearchEvents.class.getClassLoader());
+	    return true;
+	} catch (ClassNotFoundException | LinkageError e) {
+	    return false;
+	}
+    }
+
+    static Object beginSearch() {
+	if (!AVAILABLE) {
+	    return null;
+	}
+	SearchEvent event = new SearchEvent();
+	event.begin();
+	return event;
+    }
+
+    static Object beginSetup() {
+	if (!AVAILABLE) {
+	    return null;
+	}
+	SearchSetupEvent event = new SearchSetupEvent();
+	event.begin();
+	return event;
+    }
+
+    static Object beginUnpack() {
+	if (!AVAILABLE) {
+	    return null;
+	}
+	PathUnpackEvent event = new PathUnpackEvent();
+	event.begin();
+	return event;
+    }
+
+    static Object beginPreprocess() {
+	if (!AVAILABLE) {
+	    return null;
+	}
+	PreprocessEvent event = new PreprocessEvent();
+	event.begin();
+	return event;
+    }
+
+    /**
+     * @return whether the event is enabled and past its threshold, false
+     *         without JFR
+     */
+    static boolean shouldCommit(Object event) {
+	return event != null && ((jdk.jfr.Event) event).shouldCommit();
+    }
+
+    static void commitSearch(Object event, Class<?> algorithm, int nodeCount, Object start, Object goal,
+	    boolean resumed, long settled, long relaxations, int reached) {
+	SearchEvent e = (SearchEvent) event;
+	e.algorithm = algorithm.getSimpleName();
+	e.nodeCount = nodeCount;
+	e.start = String.valueOf(start);
+	e.goal = String.valueOf(goal);
+	e.resumed = resumed;
+	e.settled = settled;
+	e.relaxations = relaxations;
+	e.reached = reached;
+	e.commit();
+    }
+
+    static void commitSetup(Object event, Class<?> algorithm, int nodeCount) {
+	SearchSetupEvent e = (SearchSetupEvent) event;
+	e.algorithm = algorithm.getSimpleName();
+	e.nodeCount = nodeCount;
+	e.commit();
+    }
+
+    static void commitUnpack(Object event, Class<?> algorithm, int pathNodes) {
+	PathUnpackEvent e = (PathUnpackEvent) event;
+	e.algorithm = algorithm.getSimpleName();
+	e.pathNodes = pathNodes;
+	e.commit();
+    }
+
+    /**
+     * Commits a preprocessing event if it should be, since its fields cost
+     * nothing to compute.
+     */
+    static void endPreprocess(Object event, String algorithm, String phase, int nodeCount, int edgeCount) {
+	if (shouldCommit(event)) {
+	    PreprocessEvent e = (PreprocessEvent) event;
+	    e.algorithm = algorithm;
+	    e.phase = phase;
+	    e.nodeCount = nodeCount;
+	    e.edgeCount = edgeCount;
+	    e.commit();
+	}
+    }
+
+}
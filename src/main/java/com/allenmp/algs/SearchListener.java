@@ -0,0 +1,9 @@
+package com.allenmp.algs;
+
+/**
+ * Told about every query a shortest path algorithm runs. Called once per
+ * query on the querying thread, never from inside the search loop.
+ */
+public interface SearchListener {
+    void searchFinished(SearchStats stats);
+}
@@ -0,0 +1,30 @@
+package com.allenmp.algs;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for the per-query setup before a search loop starts, such as
+ * resetting distances, nested in a {@link SearchEvent}.
+ * <p>
+ * By default only recorded when it takes at least 1 ms.
+ */
+@Name("com.allenmp.algs.SearchSetup")
+@Label("Shortest Path Search Setup")
+@Description("Clearing the state of the previous query")
+@Category({ "Algorithms", "Shortest Path" })
+@StackTrace(false)
+@Threshold("1 ms")
+final class SearchSetupEvent extends jdk.jfr.Event {
+
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Graph Nodes")
+    int nodeCount;
+
+}
@@ -0,0 +1,75 @@
+package com.allenmp.algs;
+
+/**
+ * What one shortest path query did. Counts cover only the work of that query,
+ * so a query answered from a resumed search counts just the extra work.
+ */
+public final class SearchStats {
+
+    private final long settled;
+    private final long relaxations;
+    private final long decreaseKeys;
+    private final long heuristicEvaluations;
+    private final int reached;
+    private final long nanos;
+
+    SearchStats(long settled, long relaxations, long decreaseKeys, long heuristicEvaluations, int reached,
+	    long nanos) {
+	super();
+	this.settled = settled;
+	this.relaxations = relaxations;
+	this.decreaseKeys = decreaseKeys;
+	this.heuristicEvaluations = heuristicEvaluations;
+	this.reached = reached;
+	this.nanos = nanos;
+    }
+
+    /**
+     * @return nodes taken off the queue and expanded; Bellman-Ford may expand
+     *         a node more than once
+     */
+    public long settled() {
+	return settled;
+    }
+
+    /**
+     * @return edges looked at
+     */
+    public long relaxations() {
+	return relaxations;
+    }
+
+    /**
+     * @return shorter distances found for nodes that were already queued
+     */
+    public long decreaseKeys() {
+	return decreaseKeys;
+    }
+
+    public long heuristicEvaluations() {
+	return heuristicEvaluations;
+    }
+
+    /**
+     * @return nodes given a previous node so far, the same as
+     *         {@link ShortestPathAlg#countVisited()}
+     */
+    public int reached() {
+	return reached;
+    }
+
+    /**
+     * @return wall time of the query
+     */
+    public long nanos() {
+	return nanos;
+    }
+
+    @Override
+    public String toString() {
+	return "SearchStats [settled=" + settled + ", relaxations=" + relaxations + ", decreaseKeys="
+		+ decreaseKeys + ", heuristicEvaluations=" + heuristicEvaluations + ", reached=" + reached
+		+ ", nanos=" + nanos + "]";
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.allenmp.algs;
+
+import java.util.Arrays;
+
+/**
+ * Per-query scratch state for the {@link CsrGraph} searches: distance,
+ * predecessor, closed flag and memoized heuristic estimate per node index,
+ * plus the search heap.
+ * <p>
+ * Entries are stamped with the current epoch and anything with an older stamp
+ * reads as unreached, so {@link #reset()} is O(1) (plus the size of whatever
+ * was left in the heap) instead of O(V). A workspace can be reused across any
+ * number of queries on graphs up to its capacity; see
+ * {@link SearchWorkspacePool} for sharing them between algorithm instances.
+ * A workspace is not thread-safe.
+ */
+public class SearchWorkspace {
+
+    private final int capacity;
+
+    private final double[] dist;
+    private final int[] prev;
+
+    // dist/prev of a node are valid only when its stamp equals the epoch
+    private final int[] stamp;
+    private final int[] closedStamp;
+    private int epoch = 1;
+
+    // heuristic estimates, allocated by the first search that uses them
+    private double[] estimate;
+    private int[] estimateStamp;
+
+    private final IntMinHeap heap;
+
+    public SearchWorkspace(int capacity) {
+	super();
+	this.capacity = capacity;
+	this.dist = new double[capacity];
+	this.prev = new int[capacity];
+	this.stamp = new int[capacity];
+	this.closedStamp = new int[capacity];
+	this.heap = new IntMinHeap(capacity);
+    }
+
+    public int capacity() {
+	return capacity;
+    }
+
+    /**
+     * Forgets every node's state from the previous query.
+     */
+    public void reset() {
+	heap.clear();
+	epoch++;
+	if (epoch == Integer.MAX_VALUE) {
+	    // stamps would wrap around, so pay for a real clear once every 2^31 queries
+	    Arrays.fill(stamp, 0);
+	    Arrays.fill(closedStamp, 0);
+	    if (estimateStamp != null) {
+		Arrays.fill(estimateStamp, 0);
+	    }
+	    epoch = 1;
+	}
+    }
+
+    /**
+     * Changes on every reset, so a search can tell whether the workspace was
+     * used by anyone else since.
+     */
+    int epoch() {
+	return epoch;
+    }
+
+    IntMinHeap heap() {
+	return heap;
+    }
+
+    boolean isReached(int node) {
+	return stamp[node] == epoch;
+    }
+
+    /**
+     * @return the node's distance, or infinity if it was not reached this query
+     */
+    double dist(int node) {
+	return stamp[node] == epoch ? dist[node] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @return the node's predecessor, or -1 if it has none this query
+     */
+    int prev(int node) {
+	return stamp[node] == epoch ? prev[node] : -1;
+    }
+
+    void update(int node, double distance, int previous) {
+	stamp[node] = epoch;
+	dist[node] = distance;
+	prev[node] = previous;
+    }
+
+    boolean isClosed(int node) {
+	return closedStamp[node] == epoch;
+    }
+
+    void close(int node) {
+	closedStamp[node] = epoch;
+    }
+
+    boolean hasEstimate(int node) {
+	return estimateStamp != null && estimateStamp[node] == epoch;
+    }
+
+    /**
+     * @return the estimate stored this query, undefined if there is none
+     */
+    double estimate(int node) {
+	return estimate[node];
+    }
+
+    void setEstimate(int node, double h) {
+	if (estimateStamp == null) {
+	    estimate = new double[capacity];
+	    estimateStamp = new int[capacity];
+	}
+	estimateStamp[node] = epoch;
+	estimate[node] = h;
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.allenmp.algs;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free pool of {@link SearchWorkspace}s sized for one graph.
+ * Acquiring and releasing do not allocate once the pool is warm, so a stream
+ * of short queries produces no garbage on the hot path.
+ */
+public class SearchWorkspacePool {
+
+    private final int capacity;
+    private final AtomicReferenceArray<SearchWorkspace> slots;
+
+    /**
+     * @param graph
+     *            graph the workspaces will be used on
+     * @param maxIdle
+     *            number of released workspaces kept for reuse
+     */
+    public SearchWorkspacePool(CsrGraph<?> graph, int maxIdle) {
+	this(graph.nodeCount(), maxIdle);
+    }
+
+    public SearchWorkspacePool(int capacity, int maxIdle) {
+	super();
+	if (maxIdle < 1) {
+	    throw new IllegalArgumentException("maxIdle must be positive: " + maxIdle);
+	}
+	this.capacity = capacity;
+	this.slots = new AtomicReferenceArray<>(maxIdle);
+    }
+
+    /**
+     * @return an idle workspace, or a new one if none is idle. The workspace is
+     *         already {@link SearchWorkspace#reset() reset}.
+     */
+    public SearchWorkspace acquire() {
+	for (int i = 0; i < slots.length(); i++) {
+	    SearchWorkspace ws = slots.get(i);
+	    if (ws != null && slots.compareAndSet(i, ws, null)) {
+		ws.reset();
+		return ws;
+	    }
+	}
+	return new SearchWorkspace(capacity);
+    }
+
+    /**
+     * Returns a workspace to the pool. It is dropped if the pool is full.
+     */
+    public void release(SearchWorkspace ws) {
+	if (ws.capacity() != capacity) {
+	    throw new IllegalArgumentException("Workspace capacity " + ws.capacity() + " does not match pool capacity " + capacity);
+	}
+	for (int i = 0; i < slots.length(); i++) {
+	    if (slots.get(i) == null && slots.compareAndSet(i, null, ws)) {
+		return;
+	    }
+	}
+    }
+
+}
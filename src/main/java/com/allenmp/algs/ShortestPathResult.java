@@ -0,0 +1,66 @@
+package com.allenmp.algs;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable answer to one shortest path query, see
+ * {@link ShortestPathService}.
+ *
+ * @param <T>
+ *            node type
+ */
+public final class ShortestPathResult<T> {
+
+    private final T start;
+    private final T goal;
+    private final List<T> path;
+    private final double pathLength;
+    private final int countVisited;
+
+    ShortestPathResult(T start, T goal, List<T> path, double pathLength, int countVisited) {
+	super();
+	this.start = start;
+	this.goal = goal;
+	this.path = Collections.unmodifiableList(path);
+	this.pathLength = pathLength;
+	this.countVisited = countVisited;
+    }
+
+    public T start() {
+	return start;
+    }
+
+    public T goal() {
+	return goal;
+    }
+
+    /**
+     * @return the nodes from start to goal, empty if the goal is unreachable
+     */
+    public List<T> path() {
+	return path;
+    }
+
+    /**
+     * @return the path's total weight, infinity if the goal is unreachable
+     */
+    public double pathLength() {
+	return pathLength;
+    }
+
+    public int countVisited() {
+	return countVisited;
+    }
+
+    public boolean isReachable() {
+	return !Double.isInfinite(pathLength);
+    }
+
+    @Override
+    public String toString() {
+	return "ShortestPathResult [start=" + start + ", goal=" + goal + ", pathLength=" + pathLength + ", path=" + path
+		+ "]";
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.allenmp.algs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.ValueGraph;
+
+/**
+ * Thread-safe shortest path queries over one shared {@link CsrGraph}.
+ * <p>
+ * The {@link ShortestPathAlg} implementations keep their query state in
+ * fields, so an instance serves one caller at a time. The service holds only
+ * the immutable graph, an optional heuristic and a
+ * {@link SearchWorkspacePool}; every query borrows a workspace, runs
+ * {@link CsrDijkstraShortestPath} or {@link CsrAstarShortestPath} on it and
+ * returns it, so concurrent queries share no mutable state and allocate
+ * little once the pool is warm.
+ * <p>
+ * The batch entry point runs on any {@link Executor}: a bounded thread pool,
+ * a {@link java.util.concurrent.ForkJoinPool}, or a virtual thread per task
+ * executor on runtimes that have one.
+ *
+ * @param <T>
+ *            node type
+ */
+public class ShortestPathService<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ShortestPathService.class);
+
+    private final CsrGraph<T> graph;
+    private final DistanceFunction<T> heuristic;
+    private final SearchWorkspacePool workspaces;
+
+    public ShortestPathService(ValueGraph<T, Double> graph) {
+	this(CsrGraph.compile(graph));
+    }
+
+    public ShortestPathService(CsrGraph<T> graph) {
+	this(graph, null, new SearchWorkspacePool(graph, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * @param heuristic
+     *            A* heuristic, must be safe to call from many threads; null for
+     *            Dijkstra
+     */
+    public ShortestPathService(CsrGraph<T> graph, DistanceFunction<T> heuristic, SearchWorkspacePool workspaces) {
+	super();
+	this.graph = Objects.requireNonNull(graph);
+	this.heuristic = heuristic;
+	this.workspaces = Objects.requireNonNull(workspaces);
+    }
+
+    public ShortestPathResult<T> query(T start, T goal) {
+	SearchWorkspace ws = workspaces.acquire();
+	try {
+	    ShortestPathAlg<T> alg = heuristic == null ? new CsrDijkstraShortestPath<>(graph, ws)
+		    : new CsrAstarShortestPath<>(graph, heuristic, ws);
+	    alg.setEndpoints(start, goal);
+	    return new ShortestPathResult<>(start, goal, alg.path(), alg.pathLength(), alg.countVisited());
+	} finally {
+	    workspaces.release(ws);
+	}
+    }
+
+    public CompletableFuture<ShortestPathResult<T>> queryAsync(T start, T goal, Executor executor) {
+	return CompletableFuture.supplyAsync(() -> query(start, goal), executor);
+    }
+
+    /**
+     * Runs every query on the executor.
+     *
+     * @return the results in the order of the queries; completes exceptionally
+     *         if any query fails
+     */
+    public CompletableFuture<List<ShortestPathResult<T>>> queryAll(List<EndpointPair<T>> queries, Executor executor) {
+	Objects.requireNonNull(executor);
+	List<CompletableFuture<ShortestPathResult<T>>> futures = new ArrayList<>(queries.size());
+	for (EndpointPair<T> q : queries) {
+	    futures.add(queryAsync(q.nodeU(), q.nodeV(), executor));
+	}
+	return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+	    List<ShortestPathResult<T>> results = new ArrayList<>(futures.size());
+	    for (CompletableFuture<ShortestPathResult<T>> f : futures) {
+		results.add(f.join());
+	    }
+	    LOG.debug("Batch: queries={}", results.size());
+	    return results;
+	});
+    }
+
+}
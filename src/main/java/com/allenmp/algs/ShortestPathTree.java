@@ -0,0 +1,97 @@
+package com.allenmp.algs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Distances and predecessors from one source to every node of a
+ * {@link CsrGraph}, as computed by a single-source search such as
+ * {@link DeltaSteppingShortestPaths}.
+ *
+ * @param <T>
+ *            node type
+ */
+public final class ShortestPathTree<T> {
+
+    private final CsrGraph<T> graph;
+    private final int source;
+    private final double[] dist;
+    private final int[] prev;
+
+    ShortestPathTree(CsrGraph<T> graph, int source, double[] dist, int[] prev) {
+	super();
+	this.graph = graph;
+	this.source = source;
+	this.dist = dist;
+	this.prev = prev;
+    }
+
+    public T source() {
+	return graph.node(source);
+    }
+
+    /**
+     * @return the shortest distance from the source, infinity if unreachable
+     */
+    public double distance(T node) {
+	return dist[index(node)];
+    }
+
+    /**
+     * @return the node before this one on its shortest path, null for the
+     *         source and unreachable nodes
+     */
+    public T predecessor(T node) {
+	int p = prev[index(node)];
+	return p < 0 ? null : graph.node(p);
+    }
+
+    /**
+     * @return the nodes from the source to the goal, empty if the goal is
+     *         unreachable
+     */
+    public List<T> path(T goal) {
+	int g = index(goal);
+	List<T> path = new ArrayList<>();
+	if (Double.isInfinite(dist[g])) {
+	    return path;
+	}
+	for (int n = g; n != source; n = prev[n]) {
+	    path.add(graph.node(n));
+	}
+	path.add(graph.node(source));
+	Collections.reverse(path);
+	return path;
+    }
+
+    /**
+     * @return the number of nodes reachable from the source, itself included
+     */
+    public int countReached() {
+	int count = 0;
+	for (double d : dist) {
+	    if (d != Double.POSITIVE_INFINITY) {
+		count++;
+	    }
+	}
+	return count;
+    }
+
+    double dist(int node) {
+	return dist[node];
+    }
+
+    int prev(int node) {
+	return prev[node];
+    }
+
+    private int index(T node) {
+	int index = graph.indexOf(node);
+	if (index < 0) {
+	    throw new IllegalArgumentException("Graph does not contain node: " + node);
+	}
+	return index;
+    }
+
+}
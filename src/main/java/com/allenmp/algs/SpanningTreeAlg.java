@@ -1,5 +1,25 @@
 package com.allenmp.algs;
 
-public interface SpanningTreeAlg {
+import java.util.List;
 
+import com.google.common.graph.EndpointPair;
+
+/**
+ * Minimum spanning tree, or forest if the graph is disconnected, of a weighted
+ * graph. Directed graphs are treated as undirected.
+ *
+ * @param <T>
+ *            node type
+ */
+public interface SpanningTreeAlg<T> {
+    /**
+     * @return the edges of the forest, ordered pairs as they appear in the
+     *         graph if it is directed
+     */
+    List<EndpointPair<T>> edges();
+    double totalWeight();
+    /**
+     * @return the number of trees in the forest, one per connected component
+     */
+    int countTrees();
 }
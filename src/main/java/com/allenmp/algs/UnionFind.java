@@ -0,0 +1,49 @@
+package com.allenmp.algs;
+
+/**
+ * Disjoint sets over {@code 0..n-1} in two primitive arrays, with union by
+ * rank and path halving.
+ */
+class UnionFind {
+
+    private final int[] parent;
+    private final byte[] rank;
+
+    UnionFind(int n) {
+	super();
+	parent = new int[n];
+	rank = new byte[n];
+	for (int i = 0; i < n; i++) {
+	    parent[i] = i;
+	}
+    }
+
+    int find(int x) {
+	while (parent[x] != x) {
+	    parent[x] = parent[parent[x]];
+	    x = parent[x];
+	}
+	return x;
+    }
+
+    /**
+     * @return true if the sets were merged, false if already the same set
+     */
+    boolean union(int a, int b) {
+	a = find(a);
+	b = find(b);
+	if (a == b) {
+	    return false;
+	}
+	if (rank[a] < rank[b]) {
+	    parent[a] = b;
+	} else if (rank[a] > rank[b]) {
+	    parent[b] = a;
+	} else {
+	    parent[b] = a;
+	    rank[a]++;
+	}
+	return true;
+    }
+
+}
@@ -2,7 +2,10 @@ package com.allenmp.algs;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.Test;
@@ -48,4 +51,44 @@ public class AstarShortestPathTest {
 	assertArrayEquals(new Node[] { source, new Node(7), new Node(6), new Node(5), goal}, path.toArray());
     }
 
+    @Test
+    public void shouldMatchDijkstraLengthsOnGrid() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.wikipediaGridAstarExample();
+
+	Node start = g.nodes().stream().filter(n -> n.getId() == 22).findAny().get();
+	ShortestPathAlg<Node> dijkstra = new DijkstraShortestPath<Node>(g);
+	ShortestPathAlg<Node> alg = new AstarShortestPath<Node>(g, new EuclideanDistance());
+
+	for (Node goal : g.nodes()) {
+	    dijkstra.setEndpoints(start, goal);
+	    alg.setEndpoints(start, goal);
+	    assertEquals(dijkstra.pathLength(), alg.pathLength(), 0.000001);
+	}
+    }
+
+    @Test
+    public void shouldReportSearchStats() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.wikipediaGridAstarExample();
+	Node start = g.nodes().stream().filter(n -> n.getId() == 22).findAny().get();
+	Node goal = g.nodes().stream().filter(n -> n.getId() == 400).findAny().get();
+
+	AstarShortestPath<Node> euclidean = new AstarShortestPath<Node>(g, new EuclideanDistance());
+	List<SearchStats> reported = new ArrayList<>();
+	euclidean.setSearchListener(reported::add);
+	euclidean.setEndpoints(start, goal);
+	euclidean.pathLength();
+	AstarShortestPath<Node> zero = new AstarShortestPath<Node>(g, new ZeroDistance());
+	zero.setEndpoints(start, goal);
+	zero.pathLength();
+
+	assertEquals(1, reported.size());
+	SearchStats stats = euclidean.searchStats();
+	assertSame(reported.get(0), stats);
+	assertEquals(euclidean.countVisited(), stats.reached());
+	// one evaluation for the start plus one per discovered node, however
+	// often its distance improves
+	assertTrue(stats.decreaseKeys() > 0);
+	assertEquals(1 + stats.reached(), stats.heuristicEvaluations());
+	assertTrue(stats.settled() < zero.searchStats().settled());
+    }
 }
@@ -58,6 +58,17 @@ public class BellmanFordShortestPathTest {
 
 	alg.pathLength();
     }
+
+    @Test(expected=IllegalStateException.class)
+    public void shouldFailForNegativeCycleGraphsFromNodeToItself() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.negativeCycleGraph();
+	ShortestPathAlg<Node> alg = new BellmanFordShortestPath<Node>(g);
+
+	Node start = g.nodes().stream().filter(n -> n.getId() == 1).findAny().get();
+	alg.setEndpoints(start, start);
+
+	alg.path();
+    }
     
     
 }
@@ -0,0 +1,115 @@
+package com.allenmp.algs;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.graph.ValueGraph;
+
+public class BidirectionalAstarShortestPathTest {
+
+    @Test
+    public void shouldMatchWikiResults() throws Exception {
+
+	ValueGraph<Node, Double> g = TestGraphFactory.wikipediaDijkstraExample();
+
+	ShortestPathAlg<Node> alg = new BidirectionalAstarShortestPath<Node>(g, new EuclideanDistance());
+
+	// get source/goal by ID from the graph data to avoid declaring coords again
+	Node source = g.nodes().stream().filter(n -> n.getId() == 1).findAny().get();
+	Node goal = g.nodes().stream().filter(n -> n.getId() == 5).findAny().get();
+
+	alg.setEndpoints(source, goal);
+	double length = alg.pathLength();
+	assertEquals(20, length, 0.001);
+
+	List<Node> path = alg.path();
+	assertArrayEquals(new Node[] { source, new Node(3), new Node(6), goal }, path.toArray());
+    }
+
+    @Test
+    public void shouldMatchG4gResults() throws Exception {
+
+	ValueGraph<Node, Double> g = TestGraphFactory.g4gDijkstraExample();
+
+	ShortestPathAlg<Node> alg = new BidirectionalAstarShortestPath<Node>(g, new EuclideanDistance());
+
+	Node source = g.nodes().stream().filter(n -> n.getId() == 0).findAny().get();
+	Node goal = g.nodes().stream().filter(n -> n.getId() == 4).findAny().get();
+
+	alg.setEndpoints(source, goal);
+	double length = alg.pathLength();
+	assertEquals(21, length, 0.001);
+
+	List<Node> path = alg.path();
+	assertArrayEquals(new Node[] { source, new Node(7), new Node(6), new Node(5), goal }, path.toArray());
+    }
+
+    @Test
+    public void shouldCountEachVisitedNodeOnce() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.directedGridExample(6, 6);
+	ShortestPathAlg<Node> dijkstra = new DijkstraShortestPath<Node>(g);
+	ShortestPathAlg<Node> alg = new BidirectionalAstarShortestPath<Node>(g, new ZeroDistance());
+
+	dijkstra.setEndpoints(new Node(1), new Node(36));
+	alg.setEndpoints(new Node(1), new Node(36));
+	assertEquals(dijkstra.pathLength(), alg.pathLength(), 0.000001);
+	assertTrue(alg.countVisited() <= g.nodes().size());
+    }
+
+    @Test
+    public void shouldMatchDijkstraOnGrid() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.wikipediaGridAstarExample();
+
+	ShortestPathAlg<Node> dijkstra = new DijkstraShortestPath<Node>(g);
+	ShortestPathAlg<Node> alg = new BidirectionalAstarShortestPath<Node>(g, new EuclideanDistance());
+
+	for (Node start : g.nodes()) {
+	    if (start.getId() % 37 != 0) {
+		continue;
+	    }
+	    for (Node goal : g.nodes()) {
+		if (start.equals(goal)) {
+		    continue;
+		}
+		dijkstra.setEndpoints(start, goal);
+		alg.setEndpoints(start, goal);
+		assertEquals(dijkstra.pathLength(), alg.pathLength(), 0.000001);
+		assertTrue(alg.countVisited() <= g.nodes().size());
+		assertEquals(alg.pathLength(), BidirectionalDijkstraShortestPathTest.weight(g, alg.path()), 0.000001);
+	    }
+	}
+    }
+
+    @Test
+    public void shouldVisitFewerNodesThanAstar() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.randomWeightGridExample(40, 40, 1);
+	List<Node> nodes = new ArrayList<>(g.nodes());
+	Random random = new Random(1);
+
+	ShortestPathAlg<Node> astar = new AstarShortestPath<Node>(g, new EuclideanDistance());
+	ShortestPathAlg<Node> alg = new BidirectionalAstarShortestPath<Node>(g, new EuclideanDistance());
+
+	int vis1 = 0;
+	int vis2 = 0;
+	for (int i = 0; i < 50; i++) {
+	    Node start = nodes.get(random.nextInt(nodes.size()));
+	    Node goal = nodes.get(random.nextInt(nodes.size()));
+	    astar.setEndpoints(start, goal);
+	    alg.setEndpoints(start, goal);
+
+	    assertEquals(astar.pathLength(), alg.pathLength(), 0.000001);
+	    vis1 += astar.countVisited();
+	    vis2 += alg.countVisited();
+	}
+
+	assertTrue(vis2 < vis1);
+    }
+
+}
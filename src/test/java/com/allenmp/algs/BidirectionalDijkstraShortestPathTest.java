@@ -0,0 +1,123 @@
+package com.allenmp.algs;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.graph.ValueGraph;
+
+public class BidirectionalDijkstraShortestPathTest {
+
+    @Test
+    public void shouldMatchWikiResults() throws Exception {
+
+	ValueGraph<Node, Double> g = TestGraphFactory.wikipediaDijkstraExample();
+
+	ShortestPathAlg<Node> alg = new BidirectionalDijkstraShortestPath<Node>(g);
+
+	Node source = new Node(1);
+	Node goal = new Node(5);
+
+	alg.setEndpoints(source, goal);
+
+	double length = alg.pathLength();
+	assertEquals(20, length, 0.001);
+
+	List<Node> path = alg.path();
+	assertArrayEquals(new Node[] { source, new Node(3), new Node(6), goal }, path.toArray());
+    }
+
+    @Test
+    public void shouldMatchG4gResults() throws Exception {
+
+	ValueGraph<Node, Double> g = TestGraphFactory.g4gDijkstraExample();
+
+	ShortestPathAlg<Node> alg = new BidirectionalDijkstraShortestPath<Node>(g);
+
+	Node source = new Node(0);
+	Node goal = new Node(4);
+
+	alg.setEndpoints(source, goal);
+
+	double length = alg.pathLength();
+	assertEquals(21, length, 0.001);
+
+	List<Node> path = alg.path();
+	assertArrayEquals(new Node[] { source, new Node(7), new Node(6), new Node(5), goal }, path.toArray());
+    }
+
+    @Test
+    public void shouldMatchDijkstraOnDirectedGrid() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.directedGridExample(8, 8);
+
+	ShortestPathAlg<Node> dijkstra = new DijkstraShortestPath<Node>(g);
+	ShortestPathAlg<Node> alg = new BidirectionalDijkstraShortestPath<Node>(g);
+
+	for (Node start : g.nodes()) {
+	    for (Node goal : g.nodes()) {
+		dijkstra.setEndpoints(start, goal);
+		alg.setEndpoints(start, goal);
+		assertEquals(dijkstra.pathLength(), alg.pathLength(), 0.000001);
+		assertTrue(alg.countVisited() <= g.nodes().size());
+		if (start.equals(goal)) {
+		    assertEquals(Arrays.asList(start, start), alg.path());
+		} else if (!Double.isInfinite(alg.pathLength())) {
+		    assertEquals(alg.pathLength(), weight(g, alg.path()), 0.000001);
+		} else {
+		    assertTrue(alg.path().isEmpty());
+		}
+	    }
+	}
+    }
+
+    @Test
+    public void shouldFindZeroLengthPathFromNodeToItself() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.g4gDijkstraExample();
+	ShortestPathAlg<Node> alg = new BidirectionalDijkstraShortestPath<Node>(g);
+
+	alg.setEndpoints(new Node(3), new Node(3));
+	assertEquals(0.0, alg.pathLength(), 0.0);
+	assertArrayEquals(new Node[] { new Node(3), new Node(3) }, alg.path().toArray());
+    }
+
+    @Test
+    public void shouldCountEachVisitedNodeOnce() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.directedGridExample(6, 6);
+	ShortestPathAlg<Node> alg = new BidirectionalDijkstraShortestPath<Node>(g);
+
+	alg.setEndpoints(new Node(1), new Node(36));
+	assertFalse(Double.isInfinite(alg.pathLength()));
+	assertTrue(alg.countVisited() <= g.nodes().size());
+    }
+
+    @Test
+    public void shouldVisitFewerNodesThanDijkstra() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.wikipediaGridAstarExample();
+
+	Node start = g.nodes().stream().filter(n -> n.getId() == 22).findAny().get();
+	Node goal = g.nodes().stream().filter(n -> n.getId() == 400).findAny().get();
+
+	ShortestPathAlg<Node> dijkstra = new DijkstraShortestPath<Node>(g);
+	dijkstra.setEndpoints(start, goal);
+	ShortestPathAlg<Node> alg = new BidirectionalDijkstraShortestPath<Node>(g);
+	alg.setEndpoints(start, goal);
+
+	assertEquals(dijkstra.pathLength(), alg.pathLength(), 0.000001);
+	assertTrue(alg.countVisited() < dijkstra.countVisited());
+    }
+
+    static double weight(ValueGraph<Node, Double> g, List<Node> path) {
+	double total = 0;
+	for (int i = 1; i < path.size(); i++) {
+	    total += g.edgeValue(path.get(i - 1), path.get(i)).get();
+	}
+	return total;
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.allenmp.algs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.ImmutableValueGraph;
+import com.google.common.graph.MutableValueGraph;
+import com.google.common.graph.ValueGraph;
+import com.google.common.graph.ValueGraphBuilder;
+
+public class BoruvkaSpanningTreeTest {
+
+    @Test
+    public void shouldMatchG4gResults() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.g4gDijkstraExample();
+
+	SpanningTreeAlg<Node> alg = new BoruvkaSpanningTree<Node>(g);
+
+	assertEquals(37, alg.totalWeight(), 0.001);
+	assertEquals(1, alg.countTrees());
+	PrimsSpanningTreeTest.assertTree(g, alg);
+	assertTrue(alg.edges().contains(EndpointPair.unordered(new Node(6), new Node(7))));
+    }
+
+    @Test
+    public void shouldSpanForestOfDisconnectedGraph() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.disconnectedForestExample();
+
+	SpanningTreeAlg<Node> alg = new BoruvkaSpanningTree<Node>(g);
+
+	assertEquals(6, alg.totalWeight(), 0.001);
+	assertEquals(3, alg.countTrees());
+	PrimsSpanningTreeTest.assertTree(g, alg);
+    }
+
+    @Test
+    public void shouldMatchPrimsOnRandomGrid() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.randomWeightGridExample(40, 40, 17L);
+	CsrGraph<Node> csr = CsrGraph.compile(g);
+
+	ForkJoinPool pool = new ForkJoinPool(4);
+	try {
+	    SpanningTreeAlg<Node> alg = new BoruvkaSpanningTree<>(csr, pool);
+
+	    assertEquals(new PrimsSpanningTree<>(csr).totalWeight(), alg.totalWeight(), 0.000001);
+	    assertEquals(1, alg.countTrees());
+	    PrimsSpanningTreeTest.assertTree(g, alg);
+	} finally {
+	    pool.shutdown();
+	}
+    }
+
+    @Test
+    public void shouldBreakTiesWithoutCycles() throws Exception {
+	MutableValueGraph<Node, Double> m = ValueGraphBuilder.undirected().build();
+	int size = 10;
+	for (int x = 0; x < size; x++) {
+	    for (int y = 0; y < size; y++) {
+		Node node = new Node(x * size + y);
+		if (x > 0) {
+		    m.putEdgeValue(node, new Node((x - 1) * size + y), 1.0);
+		}
+		if (y > 0) {
+		    m.putEdgeValue(node, new Node(x * size + y - 1), 1.0);
+		}
+	    }
+	}
+	ValueGraph<Node, Double> g = ImmutableValueGraph.copyOf(m);
+
+	SpanningTreeAlg<Node> alg = new BoruvkaSpanningTree<Node>(g);
+
+	assertEquals(size * size - 1, alg.totalWeight(), 0.001);
+	assertEquals(1, alg.countTrees());
+	PrimsSpanningTreeTest.assertTree(g, alg);
+    }
+
+    @Test
+    public void shouldTreatDirectedGraphAsUndirected() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.directedGridExample(5, 5);
+
+	SpanningTreeAlg<Node> alg = new BoruvkaSpanningTree<Node>(g);
+
+	assertEquals(24, alg.totalWeight(), 0.001);
+	assertEquals(1, alg.countTrees());
+	PrimsSpanningTreeTest.assertTree(g, alg);
+    }
+
+}
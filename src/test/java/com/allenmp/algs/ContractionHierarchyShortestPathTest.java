@@ -0,0 +1,100 @@
+package com.allenmp.algs;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.google.common.graph.ValueGraph;
+
+public class ContractionHierarchyShortestPathTest {
+
+    @Test
+    public void shouldMatchWikiResults() throws Exception {
+
+	ValueGraph<Node, Double> g = TestGraphFactory.wikipediaDijkstraExample();
+
+	ShortestPathAlg<Node> alg = new ContractionHierarchyShortestPath<Node>(g);
+
+	Node source = new Node(1);
+	Node goal = new Node(5);
+
+	alg.setEndpoints(source, goal);
+
+	double length = alg.pathLength();
+	assertEquals(20, length, 0.001);
+
+	List<Node> path = alg.path();
+	assertArrayEquals(new Node[] { source, new Node(3), new Node(6), goal }, path.toArray());
+    }
+
+    @Test
+    public void shouldMatchG4gResults() throws Exception {
+
+	ValueGraph<Node, Double> g = TestGraphFactory.g4gDijkstraExample();
+
+	ShortestPathAlg<Node> alg = new ContractionHierarchyShortestPath<Node>(g);
+
+	Node source = new Node(0);
+	Node goal = new Node(4);
+
+	alg.setEndpoints(source, goal);
+
+	double length = alg.pathLength();
+	assertEquals(21, length, 0.001);
+
+	List<Node> path = alg.path();
+	assertArrayEquals(new Node[] { source, new Node(7), new Node(6), new Node(5), goal }, path.toArray());
+    }
+
+    @Test
+    public void shouldMatchDijkstraOnDirectedGrid() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.directedGridExample(8, 8);
+	assertMatchesDijkstra(g, ContractionHierarchy.build(g), 1);
+    }
+
+    @Test
+    public void shouldMatchDijkstraOnRandomGrid() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.randomWeightGridExample(20, 20, 1);
+	ForkJoinPool pool = new ForkJoinPool(4);
+	try {
+	    ContractionHierarchy<Node> ch = ContractionHierarchy.build(CsrGraph.compile(g), pool);
+	    assertTrue(ch.shortcutCount() > 0);
+	    assertMatchesDijkstra(g, ch, 13);
+	} finally {
+	    pool.shutdown();
+	}
+    }
+
+    private static void assertMatchesDijkstra(ValueGraph<Node, Double> g, ContractionHierarchy<Node> ch, int stride) {
+	ShortestPathAlg<Node> dijkstra = new DijkstraShortestPath<Node>(g);
+	ShortestPathAlg<Node> alg = new ContractionHierarchyShortestPath<Node>(ch);
+
+	for (Node start : g.nodes()) {
+	    if (start.getId() % stride != 0) {
+		continue;
+	    }
+	    for (Node goal : g.nodes()) {
+		if (start.equals(goal)) {
+		    continue;
+		}
+		dijkstra.setEndpoints(start, goal);
+		alg.setEndpoints(start, goal);
+		assertEquals(dijkstra.pathLength(), alg.pathLength(), 0.000001);
+		if (Double.isInfinite(alg.pathLength())) {
+		    assertTrue(alg.path().isEmpty());
+		} else {
+		    List<Node> path = alg.path();
+		    assertEquals(start, path.get(0));
+		    assertEquals(goal, path.get(path.size() - 1));
+		    assertEquals(alg.pathLength(), BidirectionalDijkstraShortestPathTest.weight(g, path), 0.000001);
+		}
+	    }
+	}
+    }
+
+}
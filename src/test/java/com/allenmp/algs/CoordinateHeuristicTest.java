@@ -0,0 +1,101 @@
+package com.allenmp.algs;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.google.common.graph.MutableValueGraph;
+import com.google.common.graph.ValueGraph;
+import com.google.common.graph.ValueGraphBuilder;
+
+public class CoordinateHeuristicTest {
+
+    @Test
+    public void shouldComputeEachMetric() throws Exception {
+	MutableValueGraph<Node, Double> g = ValueGraphBuilder.undirected().build();
+	Node a = new Node(1, new double[] { 1, 1 });
+	Node b = new Node(2, new double[] { 4, 5 });
+	g.putEdgeValue(a, b, 10.0);
+	CoordinateStore<Node> store = CoordinateStore.of(CsrGraph.compile(g), Node::getCoords);
+
+	assertEquals(5.0, CoordinateHeuristic.euclidean(store).between(a, b), 1e-12);
+	assertEquals(7.0, CoordinateHeuristic.manhattan(store).between(a, b), 1e-12);
+	assertEquals(4.0 + 3.0 * (Math.sqrt(2) - 1), CoordinateHeuristic.octile(store).between(a, b), 1e-12);
+	assertEquals(4.0, CoordinateHeuristic.chebyshev(store).between(b, a), 1e-12);
+	assertEquals(10.0, new CoordinateHeuristic<>(store, CoordinateHeuristic.Metric.EUCLIDEAN, 2).between(a, b),
+		1e-12);
+	assertEquals(new EuclideanDistance().between(a, b), CoordinateHeuristic.euclidean(store).between(a, b), 1e-12);
+    }
+
+    @Test
+    public void shouldComputeNeighborsLikeSingleCalls() throws Exception {
+	CsrGraph<Node> graph = CsrGraph.compile(TestGraphFactory.wikipediaGridAstarExample());
+	CoordinateStore<Node> store = CoordinateStore.of(graph, Node::getCoords);
+	double[] out = new double[16];
+	for (CoordinateHeuristic.Metric metric : CoordinateHeuristic.Metric.values()) {
+	    CoordinateHeuristic<Node> h = new CoordinateHeuristic<>(store, metric);
+	    int goal = graph.nodeCount() - 1;
+	    for (int u = 0; u < graph.nodeCount(); u++) {
+		h.fromNeighbors(u, goal, out);
+		for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++) {
+		    assertEquals(metric + " " + u, h.between(graph.target(e), goal), out[e - graph.edgeStart(u)], 0.0);
+		}
+	    }
+	}
+    }
+
+    @Test
+    public void shouldSearchLikeEuclideanDistance() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.wikipediaGridAstarExample();
+	CsrGraph<Node> graph = CsrGraph.compile(g);
+	CoordinateHeuristic<Node> h = CoordinateHeuristic.euclidean(CoordinateStore.of(graph, Node::getCoords));
+	Node start = g.nodes().stream().filter(n -> n.getId() == 22).findAny().get();
+	Node goal = g.nodes().stream().filter(n -> n.getId() == 400).findAny().get();
+
+	CsrAstarShortestPath<Node> stored = new CsrAstarShortestPath<>(graph, h);
+	stored.setEndpoints(start, goal);
+	CsrAstarShortestPath<Node> objects = new CsrAstarShortestPath<>(graph, new EuclideanDistance());
+	objects.setEndpoints(start, goal);
+	ShortestPathAlg<Node> bidirectional = new BidirectionalAstarShortestPath<>(graph, h);
+	bidirectional.setEndpoints(start, goal);
+
+	assertEquals(objects.pathLength(), stored.pathLength(), 1e-9);
+	assertEquals(objects.path(), stored.path());
+	assertEquals(objects.searchStats().settled(), stored.searchStats().settled());
+	assertEquals(objects.pathLength(), bidirectional.pathLength(), 1e-9);
+	// the object heuristic is memoized, so called once per reached node
+	assertEquals(1 + objects.searchStats().reached(), objects.searchStats().heuristicEvaluations());
+	// batches also estimate neighbors that are never reached, but each node
+	// at most once
+	long batched = stored.searchStats().heuristicEvaluations();
+	assertTrue(batched >= 1 + stored.searchStats().reached());
+	assertTrue(batched <= graph.nodeCount());
+    }
+
+    @Test
+    public void shouldReadInterleavedCoordinates() throws Exception {
+	CsrGraph<Integer> graph = CsrGraph.ofIds(false, 1, new int[] { 0, 1, 2 }, new int[] { 1, 0 },
+		new double[] { 1, 1 });
+	CoordinateStore<Integer> store = CoordinateStore.ofInterleaved(graph, new double[] { 0, 0, 3, 4 });
+	assertEquals(2, store.dimensions());
+	assertEquals(4.0, store.coordinate(1, 1), 0.0);
+	// node ids 1 and 2 are indices 0 and 1
+	assertEquals(5.0, CoordinateHeuristic.euclidean(store).between(0, 1), 1e-12);
+	assertEquals(5.0, CoordinateHeuristic.euclidean(store).between(Integer.valueOf(1), Integer.valueOf(2)), 1e-12);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMixedDimensions() throws Exception {
+	MutableValueGraph<Node, Double> g = ValueGraphBuilder.undirected().build();
+	g.putEdgeValue(new Node(1, new double[] { 1, 1 }), new Node(2, new double[] { 1, 1, 1 }), 1.0);
+	CoordinateStore.of(CsrGraph.compile(g), Node::getCoords);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectOctileOutsideThePlane() throws Exception {
+	MutableValueGraph<Node, Double> g = ValueGraphBuilder.undirected().build();
+	g.putEdgeValue(new Node(1, new double[] { 1, 1, 1 }), new Node(2, new double[] { 2, 2, 2 }), 1.0);
+	CoordinateHeuristic.octile(CoordinateStore.of(CsrGraph.compile(g), Node::getCoords));
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.allenmp.algs;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.graph.ValueGraph;
+
+public class CsrBellmanFordShortestPathTest {
+
+    @Test
+    public void shouldFindShortestPathWithNegativeWeights() throws Exception {
+
+	ValueGraph<Node, Double> g = TestGraphFactory.g4gBellmanFordExample();
+
+	ShortestPathAlg<Node> alg = new CsrBellmanFordShortestPath<Node>(g);
+
+	Node start = g.nodes().stream().filter(n -> n.getId() == 1).findAny().get();
+	Node goal = g.nodes().stream().filter(n -> n.getId() == 5).findAny().get();
+	
+	alg.setEndpoints(start, goal);
+	
+	double length = alg.pathLength();
+	assertEquals(1.0, length, 0.001);
+
+	List<Node> path = alg.path();
+	assertArrayEquals(new Node[] { start, new Node(2), goal}, path.toArray());
+    }
+
+    @Test
+    public void shouldWorkOnUndirectedGraph() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.wikipediaDijkstraExample();
+
+	ShortestPathAlg<Node> alg = new CsrBellmanFordShortestPath<Node>(g);
+
+	Node start = g.nodes().stream().filter(n -> n.getId() == 1).findAny().get();
+	Node goal = g.nodes().stream().filter(n -> n.getId() == 5).findAny().get();
+	
+	alg.setEndpoints(start, goal);
+	
+	double length = alg.pathLength();
+	assertEquals(20, length, 0.001);
+
+	List<Node> path = alg.path();
+	assertArrayEquals(new Node[] { start, new Node(3), new Node(6), goal}, path.toArray());
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void shouldFailForNegativeCycleGraphs() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.negativeCycleGraph();
+	ShortestPathAlg<Node> alg = new CsrBellmanFordShortestPath<Node>(g);
+	
+	Node start = g.nodes().stream().filter(n -> n.getId() == 1).findAny().get();
+	Node goal = g.nodes().stream().filter(n -> n.getId() == 5).findAny().get();
+	alg.setEndpoints(start, goal);
+
+	alg.pathLength();
+    }
+
+    @Test
+    public void shouldReportNegativeCycleInBothModes() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.negativeCycleGraph();
+	CsrGraph<Node> csr = CsrGraph.compile(g);
+
+	Node start = g.nodes().stream().filter(n -> n.getId() == 1).findAny().get();
+	Node goal = g.nodes().stream().filter(n -> n.getId() == 5).findAny().get();
+
+	for (CsrBellmanFordShortestPath.Mode mode : CsrBellmanFordShortestPath.Mode.values()) {
+	    ShortestPathAlg<Node> alg = new CsrBellmanFordShortestPath<Node>(csr, mode);
+	    alg.setEndpoints(start, goal);
+	    try {
+		alg.pathLength();
+		fail("Expected a negative cycle in mode " + mode);
+	    } catch (NegativeCycleException e) {
+		// 2 -> 5 -> 4 -> 2, starting anywhere on it
+		List<?> cycle = e.getCycle();
+		assertEquals(3, cycle.size());
+		int i = cycle.indexOf(new Node(2));
+		assertEquals(new Node(5), cycle.get((i + 1) % 3));
+		assertEquals(new Node(4), cycle.get((i + 2) % 3));
+	    }
+	}
+    }
+
+    @Test
+    public void shouldIgnoreUnreachableNegativeCycle() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.negativeCycleGraph();
+	CsrGraph<Node> csr = CsrGraph.compile(g);
+
+	Node start = g.nodes().stream().filter(n -> n.getId() == 3).findAny().get();
+	Node goal = g.nodes().stream().filter(n -> n.getId() == 5).findAny().get();
+
+	for (CsrBellmanFordShortestPath.Mode mode : CsrBellmanFordShortestPath.Mode.values()) {
+	    ShortestPathAlg<Node> alg = new CsrBellmanFordShortestPath<Node>(csr, mode);
+	    alg.setEndpoints(start, goal);
+	    assertTrue(Double.isInfinite(alg.pathLength()));
+	    assertTrue(alg.path().isEmpty());
+	}
+    }
+
+    @Test
+    public void shouldMatchDijkstraOnDirectedGrid() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.directedGridExample(6, 6);
+	CsrGraph<Node> csr = CsrGraph.compile(g);
+
+	ShortestPathAlg<Node> dijkstra = new DijkstraShortestPath<Node>(g);
+	ShortestPathAlg<Node> passes = new CsrBellmanFordShortestPath<Node>(csr, CsrBellmanFordShortestPath.Mode.PASSES);
+	ShortestPathAlg<Node> queue = new CsrBellmanFordShortestPath<Node>(csr, CsrBellmanFordShortestPath.Mode.QUEUE);
+	for (Node start : g.nodes()) {
+	    for (Node goal : g.nodes()) {
+		if (start.equals(goal)) {
+		    continue;
+		}
+		dijkstra.setEndpoints(start, goal);
+		passes.setEndpoints(start, goal);
+		queue.setEndpoints(start, goal);
+		assertEquals(dijkstra.pathLength(), passes.pathLength(), 0.000001);
+		assertEquals(dijkstra.pathLength(), queue.pathLength(), 0.000001);
+	    }
+	}
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.allenmp.algs;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.graph.ValueGraph;
+
+public class CsrDijkstraShortestPathTest {
+
+    @Test
+    public void shouldMatchWikiResults() throws Exception {
+
+	ValueGraph<Node, Double> g = TestGraphFactory.wikipediaDijkstraExample();
+
+	ShortestPathAlg<Node> alg = new CsrDijkstraShortestPath<Node>(g);
+
+	Node source = new Node(1);
+	Node goal = new Node(5);
+	
+	alg.setEndpoints(source, goal);
+	
+	double length = alg.pathLength();
+	assertEquals(20, length, 0.001);
+
+	List<Node> path = alg.path();
+	assertArrayEquals(new Node[] { source, new Node(3), new Node(6), goal}, path.toArray());
+    }
+
+    @Test
+    public void shouldMatchG4gResults() throws Exception {
+
+	ValueGraph<Node, Double> g = TestGraphFactory.g4gDijkstraExample();
+
+	ShortestPathAlg<Node> alg = new CsrDijkstraShortestPath<Node>(g);
+
+	Node source = new Node(0);
+	Node goal = new Node(4);
+	
+	alg.setEndpoints(source, goal);
+	
+	double length = alg.pathLength();
+	assertEquals(21, length, 0.001);
+
+	List<Node> path = alg.path();
+	assertArrayEquals(new Node[] { source, new Node(7), new Node(6), new Node(5), goal}, path.toArray());
+    }
+    
+
+    @Test
+    public void shouldMatchDijkstraOnGrid() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.wikipediaGridAstarExample();
+	CsrGraph<Node> csr = CsrGraph.compile(g);
+
+	Node start = g.nodes().stream().filter(n -> n.getId() == 22).findAny().get();
+	ShortestPathAlg<Node> expected = new DijkstraShortestPath<Node>(g);
+	ShortestPathAlg<Node> alg = new CsrDijkstraShortestPath<Node>(csr);
+
+	for (Node goal : g.nodes()) {
+	    expected.setEndpoints(start, goal);
+	    alg.setEndpoints(start, goal);
+	    assertEquals(expected.pathLength(), alg.pathLength(), 0.000001);
+	}
+    }
+
+    @Test
+    public void shouldReusePooledWorkspace() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.wikipediaGridAstarExample();
+	CsrGraph<Node> csr = CsrGraph.compile(g);
+	SearchWorkspacePool pool = new SearchWorkspacePool(csr, 1);
+
+	Node start = g.nodes().stream().filter(n -> n.getId() == 22).findAny().get();
+	ShortestPathAlg<Node> expected = new DijkstraShortestPath<Node>(g);
+
+	SearchWorkspace first = null;
+	for (Node goal : g.nodes()) {
+	    SearchWorkspace ws = pool.acquire();
+	    if (first == null) {
+		first = ws;
+	    }
+	    assertSame(first, ws);
+
+	    ShortestPathAlg<Node> alg = new CsrDijkstraShortestPath<Node>(csr, ws);
+	    alg.setEndpoints(start, goal);
+	    expected.setEndpoints(start, goal);
+	    assertEquals(expected.pathLength(), alg.pathLength(), 0.000001);
+	    pool.release(ws);
+	}
+    }
+
+    @Test
+    public void shouldResumeSearchForNewGoals() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.randomWeightGridExample(20, 20, 1);
+	List<Node> nodes = new ArrayList<>(g.nodes());
+	Random random = new Random(1);
+	Node start = nodes.get(0);
+
+	ShortestPathAlg<Node> alg = new CsrDijkstraShortestPath<Node>(g);
+	alg.setEndpoints(start, start);
+	for (int i = 0; i < 50; i++) {
+	    Node goal = nodes.get(random.nextInt(nodes.size()));
+	    ShortestPathAlg<Node> fresh = new CsrDijkstraShortestPath<Node>(g);
+	    fresh.setEndpoints(start, goal);
+
+	    int visited = alg.countVisited();
+	    alg.setGoal(goal);
+	    assertEquals(fresh.pathLength(), alg.pathLength(), 0.000001);
+	    assertEquals(fresh.path(), alg.path());
+	    // the search only ever grows
+	    assertTrue(alg.countVisited() >= visited);
+	}
+
+	// settled goals are answered without searching further
+	Node far = nodes.get(nodes.size() - 1);
+	alg.setGoal(far);
+	int visited = alg.countVisited();
+	alg.setGoal(nodes.get(1));
+	assertEquals(visited, alg.countVisited());
+    }
+
+    @Test
+    public void shouldReportSearchStats() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.randomWeightGridExample(20, 20, 1);
+	Node start = g.nodes().stream().filter(n -> n.getId() == 1).findAny().get();
+	Node goal = g.nodes().stream().filter(n -> n.getId() == 300).findAny().get();
+
+	CsrDijkstraShortestPath<Node> alg = new CsrDijkstraShortestPath<Node>(g);
+	List<SearchStats> reported = new ArrayList<>();
+	alg.setSearchListener(reported::add);
+	alg.setEndpoints(start, goal);
+	List<Node> path = alg.path();
+
+	assertEquals(1, reported.size());
+	SearchStats stats = alg.searchStats();
+	assertSame(reported.get(0), stats);
+	assertEquals(alg.countVisited(), stats.reached());
+	assertTrue(stats.settled() > 1 && stats.settled() <= stats.reached() + 1);
+	assertTrue(stats.relaxations() >= stats.settled());
+	assertTrue(stats.decreaseKeys() < stats.relaxations());
+	assertEquals(0, stats.heuristicEvaluations());
+
+	// answered without another query
+	alg.pathLength();
+	assertEquals(1, reported.size());
+
+	// a node settled on the way is answered without settling anything
+	alg.setGoal(path.get(path.size() - 2));
+	alg.pathLength();
+	assertEquals(2, reported.size());
+	assertEquals(0, alg.searchStats().settled());
+    }
+}
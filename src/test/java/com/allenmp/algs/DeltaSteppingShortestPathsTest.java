@@ -0,0 +1,120 @@
+package com.allenmp.algs;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.google.common.graph.ImmutableValueGraph;
+import com.google.common.graph.MutableValueGraph;
+import com.google.common.graph.ValueGraph;
+import com.google.common.graph.ValueGraphBuilder;
+
+public class DeltaSteppingShortestPathsTest {
+
+    @Test
+    public void shouldMatchWikiResults() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.wikipediaDijkstraExample();
+
+	ShortestPathTree<Node> tree = new DeltaSteppingShortestPaths<Node>(g).compute(new Node(1));
+
+	assertEquals(20, tree.distance(new Node(5)), 0.001);
+	assertArrayEquals(new Node[] { new Node(1), new Node(3), new Node(6), new Node(5) },
+		tree.path(new Node(5)).toArray());
+	assertEquals(new Node(6), tree.predecessor(new Node(5)));
+	assertNull(tree.predecessor(new Node(1)));
+    }
+
+    @Test
+    public void shouldMatchDijkstraForAnyDelta() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.randomWeightGridExample(30, 30, 1);
+	CsrGraph<Node> csr = CsrGraph.compile(g);
+	Node source = csr.node(0);
+
+	ForkJoinPool pool = new ForkJoinPool(4);
+	try {
+	    for (double delta : new double[] { 0.1, 1.5, 4, 1000 }) {
+		ShortestPathTree<Node> tree = new DeltaSteppingShortestPaths<Node>(csr, delta, pool).compute(source);
+		assertTree(g, source, tree);
+	    }
+	} finally {
+	    pool.shutdown();
+	}
+    }
+
+    @Test
+    public void shouldMatchDijkstraOnDirectedGrid() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.directedGridExample(20, 20);
+	CsrGraph<Node> csr = CsrGraph.compile(g);
+
+	DeltaSteppingShortestPaths<Node> alg = new DeltaSteppingShortestPaths<Node>(csr, 2, ForkJoinPool.commonPool());
+	for (int i = 0; i < csr.nodeCount(); i += 41) {
+	    ShortestPathTree<Node> tree = alg.compute(csr.node(i));
+	    assertTree(g, csr.node(i), tree);
+	}
+    }
+
+    @Test
+    public void shouldHandleZeroWeightCycles() throws Exception {
+	MutableValueGraph<Node, Double> m = ValueGraphBuilder.directed().build();
+	Node a = new Node(1);
+	Node b = new Node(2);
+	Node c = new Node(3);
+	Node d = new Node(4);
+	m.putEdgeValue(a, b, 2.0);
+	m.putEdgeValue(b, c, 0.0);
+	m.putEdgeValue(c, b, 0.0);
+	m.putEdgeValue(c, d, 0.0);
+	m.putEdgeValue(d, c, 0.0);
+	ValueGraph<Node, Double> g = ImmutableValueGraph.copyOf(m);
+
+	ShortestPathTree<Node> tree = new DeltaSteppingShortestPaths<Node>(g).compute(a);
+
+	assertEquals(2, tree.distance(d), 0.000001);
+	assertEquals(4, tree.path(d).size());
+	assertEquals(4, tree.countReached());
+    }
+
+    @Test
+    public void shouldHandleHeavyOutlierEdge() throws Exception {
+	MutableValueGraph<Node, Double> m = ValueGraphBuilder.directed().build();
+	for (int i = 1; i < 50; i++) {
+	    m.putEdgeValue(new Node(i), new Node(i + 1), 1.0);
+	}
+	m.putEdgeValue(new Node(1), new Node(51), 1e12);
+	m.putEdgeValue(new Node(51), new Node(52), 0.5);
+	m.putEdgeValue(new Node(50), new Node(52), 1e9);
+	ValueGraph<Node, Double> g = ImmutableValueGraph.copyOf(m);
+	CsrGraph<Node> csr = CsrGraph.compile(g);
+
+	// the mean weight puts every light edge in bucket 0; a tiny delta spreads
+	// the outlier over 1e15 buckets
+	assertTree(g, new Node(1), new DeltaSteppingShortestPaths<Node>(csr).compute(new Node(1)));
+	assertTree(g, new Node(1),
+		new DeltaSteppingShortestPaths<Node>(csr, 0.001, ForkJoinPool.commonPool()).compute(new Node(1)));
+    }
+
+    private static void assertTree(ValueGraph<Node, Double> g, Node source, ShortestPathTree<Node> tree) {
+	ShortestPathAlg<Node> dijkstra = new DijkstraShortestPath<Node>(g);
+	for (Node goal : g.nodes()) {
+	    if (goal.equals(source)) {
+		assertEquals(0, tree.distance(goal), 0);
+		continue;
+	    }
+	    dijkstra.setEndpoints(source, goal);
+	    assertEquals(dijkstra.pathLength(), tree.distance(goal), 0.000001);
+	    List<Node> path = tree.path(goal);
+	    if (Double.isInfinite(tree.distance(goal))) {
+		assertTrue(path.isEmpty());
+	    } else {
+		assertEquals(tree.distance(goal), BidirectionalDijkstraShortestPathTest.weight(g, path), 0.000001);
+	    }
+	}
+    }
+
+}
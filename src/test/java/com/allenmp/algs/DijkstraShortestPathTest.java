@@ -2,8 +2,11 @@ package com.allenmp.algs;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.Test;
 
@@ -50,5 +53,57 @@ public class DijkstraShortestPathTest {
 	List<Node> path = alg.path();
 	assertArrayEquals(new Node[] { source, new Node(7), new Node(6), new Node(5), goal}, path.toArray());
     }
-    
+
+    @Test
+    public void shouldResumeSearchForNewGoals() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.randomWeightGridExample(20, 20, 1);
+	List<Node> nodes = new ArrayList<>(g.nodes());
+	Random random = new Random(1);
+	Node start = nodes.get(0);
+
+	ShortestPathAlg<Node> alg = new DijkstraShortestPath<Node>(g);
+	alg.setEndpoints(start, start);
+	for (int i = 0; i < 50; i++) {
+	    Node goal = nodes.get(random.nextInt(nodes.size()));
+	    ShortestPathAlg<Node> fresh = new DijkstraShortestPath<Node>(g);
+	    fresh.setEndpoints(start, goal);
+
+	    int visited = alg.countVisited();
+	    alg.setGoal(goal);
+	    assertEquals(fresh.pathLength(), alg.pathLength(), 0.000001);
+	    assertEquals(fresh.path(), alg.path());
+	    // the search only ever grows
+	    assertTrue(alg.countVisited() >= visited);
+	}
+
+	// settled goals are answered without searching further
+	Node far = nodes.get(nodes.size() - 1);
+	alg.setGoal(far);
+	int visited = alg.countVisited();
+	alg.setGoal(nodes.get(1));
+	assertEquals(visited, alg.countVisited());
+    }
+
+    @Test
+    public void shouldReportSameStatsAsCsrDijkstra() throws Exception {
+	// random weights, so no ties to settle in a different order
+	ValueGraph<Node, Double> g = TestGraphFactory.randomWeightGridExample(15, 15, 9);
+	Node start = g.nodes().stream().filter(n -> n.getId() == 1).findAny().get();
+	Node goal = g.nodes().stream().filter(n -> n.getId() == 200).findAny().get();
+
+	DijkstraShortestPath<Node> alg = new DijkstraShortestPath<Node>(g);
+	alg.setEndpoints(start, goal);
+	alg.pathLength();
+	CsrDijkstraShortestPath<Node> csr = new CsrDijkstraShortestPath<Node>(g);
+	csr.setEndpoints(start, goal);
+	csr.pathLength();
+
+	SearchStats stats = alg.searchStats();
+	SearchStats expected = csr.searchStats();
+	assertTrue(stats.settled() > 1);
+	assertEquals(expected.settled(), stats.settled());
+	assertEquals(expected.relaxations(), stats.relaxations());
+	assertEquals(expected.decreaseKeys(), stats.decreaseKeys());
+	assertEquals(alg.countVisited(), stats.reached());
+    }
 }
@@ -0,0 +1,62 @@
+package com.allenmp.algs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.google.common.graph.ValueGraph;
+
+public class DistanceMatrixTest {
+
+    @Test
+    public void shouldMatchDijkstraOnDirectedGrid() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.directedGridExample(10, 10);
+	List<Node> nodes = new ArrayList<>(g.nodes());
+	Random random = new Random(1);
+
+	// duplicates on both sides
+	List<Node> sources = new ArrayList<>();
+	List<Node> targets = new ArrayList<>();
+	for (int i = 0; i < 12; i++) {
+	    sources.add(nodes.get(random.nextInt(nodes.size())));
+	}
+	for (int i = 0; i < 20; i++) {
+	    targets.add(nodes.get(random.nextInt(nodes.size())));
+	}
+	sources.add(sources.get(0));
+	targets.add(targets.get(0));
+
+	DistanceMatrix<Node> matrix = new DistanceMatrix<Node>(g);
+	ExecutorService executor = Executors.newFixedThreadPool(4);
+	try {
+	    double[] flat = matrix.compute(sources, targets, executor);
+	    double[][] rows = matrix.computeRows(sources, targets, executor);
+
+	    // some targets are unreachable, one-way streets
+	    int unreachable = 0;
+	    ShortestPathAlg<Node> dijkstra = new DijkstraShortestPath<Node>(g);
+	    for (int i = 0; i < sources.size(); i++) {
+		for (int j = 0; j < targets.size(); j++) {
+		    dijkstra.setEndpoints(sources.get(i), targets.get(j));
+		    double expected = sources.get(i).equals(targets.get(j)) ? 0 : dijkstra.pathLength();
+		    assertEquals(expected, flat[i * targets.size() + j], 0.000001);
+		    assertEquals(expected, rows[i][j], 0.000001);
+		    if (Double.isInfinite(expected)) {
+			unreachable++;
+		    }
+		}
+	    }
+	    assertTrue(unreachable > 0);
+	} finally {
+	    executor.shutdown();
+	}
+    }
+
+}
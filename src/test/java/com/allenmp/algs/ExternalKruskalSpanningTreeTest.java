@@ -0,0 +1,131 @@
+package com.allenmp.algs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.ValueGraph;
+
+public class ExternalKruskalSpanningTreeTest {
+
+    @Test
+    public void shouldMatchPrimsWithManyRuns() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.randomWeightGridExample(30, 30, 5L);
+	Path file = writeEdges(g);
+	Path dir = Files.createTempDirectory("kruskal");
+	try {
+	    // 1740 edges in runs of 50, merged three at a time over several passes
+	    ExternalKruskalSpanningTree alg = new ExternalKruskalSpanningTree(file, 50, 3, dir);
+
+	    assertEquals(new PrimsSpanningTree<>(g).totalWeight(), alg.totalWeight(), 0.000001);
+	    assertEquals(1, alg.countTrees());
+	    assertEquals(g.nodes().size() - 1, alg.edges().size());
+	    assertForest(g, alg.edges());
+	    try (Stream<Path> left = Files.list(dir)) {
+		assertEquals(0, left.count());
+	    }
+	} finally {
+	    Files.delete(file);
+	    Files.delete(dir);
+	}
+    }
+
+    @Test
+    public void shouldMatchPrimsInOneRun() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.g4gDijkstraExample();
+	Path file = writeEdges(g);
+	try {
+	    ExternalKruskalSpanningTree alg = new ExternalKruskalSpanningTree(file);
+
+	    assertEquals(37, alg.totalWeight(), 0.001);
+	    assertEquals(1, alg.countTrees());
+	    assertForest(g, alg.edges());
+	} finally {
+	    Files.delete(file);
+	}
+    }
+
+    @Test
+    public void shouldSpanForestOfCsvWithComments() throws Exception {
+	Path file = write("# u,v,weight\n1,2,1.0\n2,3,2.5\n\n1,3,5\n% isolated node\n6,6,0\n4;5;3\n");
+	try {
+	    ExternalKruskalSpanningTree alg = new ExternalKruskalSpanningTree(file, 2, 2, null);
+
+	    assertEquals(6.5, alg.totalWeight(), 0.001);
+	    assertEquals(3, alg.countTrees());
+	    List<EndpointPair<Integer>> edges = alg.edges();
+	    assertEquals(3, edges.size());
+	    assertTrue(edges.contains(EndpointPair.unordered(2, 3)));
+	    assertTrue(edges.contains(EndpointPair.unordered(4, 5)));
+	} finally {
+	    Files.delete(file);
+	}
+    }
+
+    @Test
+    public void shouldReadWeightsWithExponents() throws Exception {
+	Path file = write("0 1 1e1\n1 2 2.5E-1\n0 2 1.5e+1\n");
+	try {
+	    ExternalKruskalSpanningTree alg = new ExternalKruskalSpanningTree(file);
+
+	    assertEquals(10.25, alg.totalWeight(), 0.000001);
+	} finally {
+	    Files.delete(file);
+	}
+    }
+
+    @Test
+    public void shouldRejectMalformedLine() throws Exception {
+	Path file = write("1 2 1.0\n2 x 2.0\n");
+	try {
+	    new ExternalKruskalSpanningTree(file);
+	    fail("Expected an IOException");
+	} catch (IOException e) {
+	    assertTrue(e.getMessage(), e.getMessage().startsWith("Line 2"));
+	} finally {
+	    Files.delete(file);
+	}
+    }
+
+    private static void assertForest(ValueGraph<Node, Double> g, List<EndpointPair<Integer>> edges) {
+	Map<Integer, Node> byId = new HashMap<>();
+	for (Node node : g.nodes()) {
+	    byId.put(node.getId(), node);
+	}
+	for (EndpointPair<Integer> edge : edges) {
+	    assertTrue(g.hasEdgeConnecting(byId.get(edge.nodeU()), byId.get(edge.nodeV())));
+	}
+    }
+
+    private static Path writeEdges(ValueGraph<Node, Double> g) throws IOException {
+	Path file = Files.createTempFile("edges", ".txt");
+	try (Writer out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+	    for (EndpointPair<Node> edge : g.edges()) {
+		out.write(edge.nodeU().getId() + " " + edge.nodeV().getId() + "\t"
+			+ g.edgeValue(edge.nodeU(), edge.nodeV()).get() + "\n");
+	    }
+	}
+	return file;
+    }
+
+    private static Path write(String text) throws IOException {
+	Path file = Files.createTempFile("edges", ".csv");
+	Files.write(file, Arrays.asList(text.split("\n", -1)), StandardCharsets.US_ASCII);
+	return file;
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.allenmp.algs;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.google.common.graph.ValueGraph;
+
+public class FloydWarshallShortestPathTest {
+
+    @Test
+    public void shouldMatchWikiResults() throws Exception {
+
+	ValueGraph<Node, Double> g = TestGraphFactory.wikipediaDijkstraExample();
+
+	ShortestPathAlg<Node> alg = new FloydWarshallShortestPath<Node>(g);
+
+	Node source = new Node(1);
+	Node goal = new Node(5);
+
+	alg.setEndpoints(source, goal);
+
+	double length = alg.pathLength();
+	assertEquals(20, length, 0.001);
+
+	List<Node> path = alg.path();
+	assertArrayEquals(new Node[] { source, new Node(3), new Node(6), goal }, path.toArray());
+    }
+
+    @Test
+    public void shouldFindShortestPathWithNegativeWeights() throws Exception {
+
+	ValueGraph<Node, Double> g = TestGraphFactory.g4gBellmanFordExample();
+
+	ShortestPathAlg<Node> alg = new FloydWarshallShortestPath<Node>(g);
+
+	Node start = new Node(1);
+	Node goal = new Node(5);
+
+	alg.setEndpoints(start, goal);
+
+	double length = alg.pathLength();
+	assertEquals(1.0, length, 0.001);
+
+	List<Node> path = alg.path();
+	assertArrayEquals(new Node[] { start, new Node(2), goal }, path.toArray());
+    }
+
+    @Test
+    public void shouldMatchBellmanFordAcrossBlocks() throws Exception {
+	// 35 nodes in tiles of 8, the last one partial
+	ValueGraph<Node, Double> g = TestGraphFactory.negativeWeightGridExample(7, 5, 1);
+	CsrGraph<Node> csr = CsrGraph.compile(g);
+
+	ForkJoinPool pool = new ForkJoinPool(4);
+	try {
+	    FloydWarshallShortestPath<Node> alg = new FloydWarshallShortestPath<Node>(csr, 8, pool);
+	    ShortestPathAlg<Node> bellmanFord = new CsrBellmanFordShortestPath<Node>(csr);
+	    for (Node start : g.nodes()) {
+		for (Node goal : g.nodes()) {
+		    if (start.equals(goal)) {
+			continue;
+		    }
+		    bellmanFord.setEndpoints(start, goal);
+		    alg.setEndpoints(start, goal);
+		    assertEquals(bellmanFord.pathLength(), alg.pathLength(), 0.000001);
+		    assertEquals(alg.pathLength(), alg.distance(start, goal), 0);
+		    assertEquals(alg.pathLength(), BidirectionalDijkstraShortestPathTest.weight(g, alg.path()), 0.000001);
+		}
+	    }
+	} finally {
+	    pool.shutdown();
+	}
+    }
+
+    @Test
+    public void shouldReportUnreachableGoals() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.directedGridExample(6, 6);
+	CsrGraph<Node> csr = CsrGraph.compile(g);
+
+	ShortestPathAlg<Node> alg = new FloydWarshallShortestPath<Node>(csr, 5, ForkJoinPool.commonPool());
+	ShortestPathAlg<Node> dijkstra = new CsrDijkstraShortestPath<Node>(csr);
+	for (Node start : g.nodes()) {
+	    for (Node goal : g.nodes()) {
+		if (start.equals(goal)) {
+		    continue;
+		}
+		dijkstra.setEndpoints(start, goal);
+		alg.setEndpoints(start, goal);
+		assertEquals(dijkstra.pathLength(), alg.pathLength(), 0.000001);
+		if (Double.isInfinite(alg.pathLength())) {
+		    assertTrue(alg.path().isEmpty());
+		}
+	    }
+	}
+    }
+
+    @Test
+    public void shouldFailForNegativeCycleGraphs() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.negativeCycleGraph();
+	try {
+	    new FloydWarshallShortestPath<Node>(g);
+	    fail("Expected a negative cycle");
+	} catch (NegativeCycleException e) {
+	    assertTrue(e.getCycle().contains(new Node(2)));
+	}
+    }
+
+}
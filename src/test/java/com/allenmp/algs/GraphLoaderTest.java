@@ -0,0 +1,128 @@
+package com.allenmp.algs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.ValueGraph;
+
+public class GraphLoaderTest {
+
+    @Test
+    public void shouldLoadDimacsGraphAndCoordinates() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.randomWeightGridExample(12, 9, 23L);
+	Path gr = Files.createTempFile("graph", ".gr");
+	Path co = Files.createTempFile("graph", ".co");
+	try {
+	    try (Writer out = Files.newBufferedWriter(gr, StandardCharsets.US_ASCII)) {
+		out.write("c random grid, both directions\n");
+		out.write("p sp " + g.nodes().size() + " " + 2 * g.edges().size() + "\n");
+		for (EndpointPair<Node> edge : g.edges()) {
+		    double w = g.edgeValue(edge.nodeU(), edge.nodeV()).get();
+		    out.write("a " + edge.nodeU().getId() + " " + edge.nodeV().getId() + " " + w + "\n");
+		    out.write("a " + edge.nodeV().getId() + " " + edge.nodeU().getId() + " " + w + "\n");
+		}
+	    }
+	    try (Writer out = Files.newBufferedWriter(co, StandardCharsets.US_ASCII)) {
+		out.write("p aux sp co " + g.nodes().size() + "\n");
+		for (Node node : g.nodes()) {
+		    out.write("v " + node.getId() + " " + node.getCoords()[0] + " " + node.getCoords()[1] + "\n");
+		}
+	    }
+
+	    CsrGraph<Integer> csr = GraphLoader.readDimacs(gr);
+	    double[] coordinates = GraphLoader.readDimacsCoordinates(co, csr);
+
+	    assertTrue(csr.isDirected());
+	    assertEquals(g.nodes().size(), csr.nodeCount());
+	    assertEquals(2 * g.edges().size(), csr.edgeCount());
+	    assertEquals(0, csr.indexOf(1));
+	    assertEquals(-1, csr.indexOf(0));
+	    assertEquals(Integer.valueOf(g.nodes().size()), csr.node(csr.nodeCount() - 1));
+
+	    Node start = new Node(1);
+	    Node goal = new Node(g.nodes().size());
+	    DijkstraShortestPath<Node> expected = new DijkstraShortestPath<>(g);
+	    expected.setEndpoints(start, goal);
+
+	    CsrAstarShortestPath<Integer> astar = new CsrAstarShortestPath<>(csr,
+		    new CoordinateDistance<>(csr, coordinates, 1.0));
+	    astar.setEndpoints(1, g.nodes().size());
+	    assertEquals(expected.pathLength(), astar.pathLength(), 0.000001);
+	    assertEquals(expected.path().size(), astar.path().size());
+	} finally {
+	    Files.delete(gr);
+	    Files.delete(co);
+	}
+    }
+
+    @Test
+    public void shouldLoadCsvWithHeaderAsUndirected() throws Exception {
+	Path file = write("from,to,weight\n0,1,2.5\n1,2\n# comment\n\n3,3,1\n");
+	try {
+	    CsrGraph<Integer> csr = GraphLoader.readEdgeList(file, false);
+
+	    assertFalse(csr.isDirected());
+	    assertEquals(4, csr.nodeCount());
+	    // two edges stored both ways plus one self loop
+	    assertEquals(5, csr.edgeCount());
+
+	    CsrDijkstraShortestPath<Integer> alg = new CsrDijkstraShortestPath<>(csr);
+	    alg.setEndpoints(2, 0);
+	    assertEquals(3.5, alg.pathLength(), 0.0);
+	} finally {
+	    Files.delete(file);
+	}
+    }
+
+    @Test
+    public void shouldLoadTsvAsDirected() throws Exception {
+	Path file = write("0\t1\t1.5\n1\t2\t1e1\n5\t0\t2\n");
+	try {
+	    CsrGraph<Integer> csr = GraphLoader.readEdgeList(file, true);
+
+	    assertEquals(6, csr.nodeCount());
+	    assertEquals(3, csr.edgeCount());
+	    assertEquals(csr.edgeStart(5) + 1, csr.edgeEnd(5));
+	    assertEquals(0, csr.inEdgeEnd(5) - csr.inEdgeStart(5));
+
+	    CsrDijkstraShortestPath<Integer> alg = new CsrDijkstraShortestPath<>(csr);
+	    alg.setEndpoints(5, 2);
+	    assertEquals(13.5, alg.pathLength(), 0.0);
+	    alg.setEndpoints(2, 5);
+	    assertTrue(Double.isInfinite(alg.pathLength()));
+	} finally {
+	    Files.delete(file);
+	}
+    }
+
+    @Test
+    public void shouldRejectArcOutsideProblem() throws Exception {
+	Path file = write("p sp 2 1\na 1 3 4\n");
+	try {
+	    GraphLoader.readDimacs(file);
+	    fail("Expected an IOException");
+	} catch (IOException e) {
+	    assertTrue(e.getMessage(), e.getMessage().startsWith("Line 2"));
+	} finally {
+	    Files.delete(file);
+	}
+    }
+
+    private static Path write(String text) throws IOException {
+	Path file = Files.createTempFile("edges", ".txt");
+	Files.write(file, text.getBytes(StandardCharsets.US_ASCII));
+	return file;
+    }
+
+}
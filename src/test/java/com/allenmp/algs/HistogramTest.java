@@ -0,0 +1,93 @@
+package com.allenmp.algs;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+    @Test
+    public void shouldKeepSmallValuesExact() throws Exception {
+	Histogram h = new Histogram();
+	for (int i = 0; i < 100; i++) {
+	    h.record(i);
+	}
+	HistogramSnapshot s = h.snapshot();
+	assertEquals(100, s.count());
+	assertEquals(0, s.min());
+	assertEquals(99, s.max());
+	assertEquals(49.5, s.mean(), 1e-9);
+	assertEquals(49, s.valueAtPercentile(50));
+	assertEquals(98, s.valueAtPercentile(99));
+	assertEquals(99, s.valueAtPercentile(100));
+    }
+
+    @Test
+    public void shouldKeepLargeValuesWithinOneSixtyFourth() throws Exception {
+	Histogram h = new Histogram();
+	for (long v = 1; v <= 100000; v++) {
+	    h.record(v * 1000);
+	}
+	HistogramSnapshot s = h.snapshot();
+	for (double p : new double[] { 1, 50, 90, 99, 99.9 }) {
+	    double expected = p * 1000 * 1000;
+	    long actual = s.valueAtPercentile(p);
+	    assertTrue(p + ": " + actual, actual >= expected && actual <= expected * (1 + 1.0 / 64));
+	}
+	assertEquals(100000000, s.valueAtPercentile(100));
+    }
+
+    @Test
+    public void shouldMapEveryValueToABucketThatHoldsIt() throws Exception {
+	for (long v : new long[] { 0, 1, 127, 128, 129, 255, 256, 1000, 1L << 40, Long.MAX_VALUE }) {
+	    int index = Histogram.index(v);
+	    assertTrue(v + " in " + index, index < Histogram.BUCKETS);
+	    assertTrue(v + " in " + index, v <= Histogram.highestValue(index));
+	    assertTrue(v + " in " + index, index == 0 || v > Histogram.highestValue(index - 1));
+	}
+    }
+
+    @Test
+    public void shouldCountEveryRecordFromManyThreads() throws Exception {
+	Histogram h = new Histogram();
+	ExecutorService pool = Executors.newFixedThreadPool(4);
+	try {
+	    List<Future<?>> futures = new ArrayList<>();
+	    for (int t = 0; t < 4; t++) {
+		futures.add(pool.submit(() -> {
+		    for (int i = 0; i < 10000; i++) {
+			h.record(i % 500);
+		    }
+		}));
+	    }
+	    for (Future<?> f : futures) {
+		f.get();
+	    }
+	} finally {
+	    pool.shutdown();
+	}
+	HistogramSnapshot s = h.snapshot();
+	assertEquals(40000, s.count());
+	assertEquals(499, s.max());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeValues() throws Exception {
+	new Histogram().record(-1);
+    }
+
+    @Test
+    public void shouldReportZerosWhenEmpty() throws Exception {
+	HistogramSnapshot s = new Histogram().snapshot();
+	assertEquals(0, s.count());
+	assertEquals(0, s.valueAtPercentile(99));
+	assertEquals(0.0, s.mean(), 0.0);
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.allenmp.algs;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.google.common.graph.ValueGraph;
+
+public class JohnsonShortestPathsTest {
+
+    @Test
+    public void shouldMatchBellmanFordWithNegativeWeights() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.negativeWeightGridExample(6, 6, 1);
+	CsrGraph<Node> csr = CsrGraph.compile(g);
+	int n = csr.nodeCount();
+
+	ForkJoinPool pool = new ForkJoinPool(4);
+	try {
+	    double[] matrix = new JohnsonShortestPaths<Node>(csr, pool).distanceMatrix();
+
+	    ShortestPathAlg<Node> bellmanFord = new CsrBellmanFordShortestPath<Node>(csr);
+	    for (int s = 0; s < n; s++) {
+		for (int t = 0; t < n; t++) {
+		    if (s == t) {
+			assertEquals(0, matrix[s * n + t], 0.000001);
+			continue;
+		    }
+		    bellmanFord.setEndpoints(csr.node(s), csr.node(t));
+		    assertEquals(bellmanFord.pathLength(), matrix[s * n + t], 0.000001);
+		}
+	    }
+	} finally {
+	    pool.shutdown();
+	}
+    }
+
+    @Test
+    public void shouldMatchG4gResults() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.g4gBellmanFordExample();
+
+	JohnsonShortestPaths<Node> alg = new JohnsonShortestPaths<Node>(g);
+	CsrGraph<Node> csr = alg.graph();
+	double[] row = alg.row(new Node(1));
+
+	assertEquals(1.0, row[csr.indexOf(new Node(5))], 0.001);
+	assertEquals(-2.0, row[csr.indexOf(new Node(4))], 0.001);
+	// nothing leaves node 3
+	assertEquals(Double.POSITIVE_INFINITY, alg.row(new Node(3))[csr.indexOf(new Node(1))], 0);
+    }
+
+    @Test
+    public void shouldWriteRowsToFile() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.negativeWeightGridExample(5, 7, 2);
+	JohnsonShortestPaths<Node> alg = new JohnsonShortestPaths<Node>(g);
+	int n = alg.graph().nodeCount();
+	double[] matrix = alg.distanceMatrix();
+
+	Path file = Files.createTempFile("johnson", ".bin");
+	try {
+	    alg.writeTo(file);
+	    assertEquals((long) n * n * 8, Files.size(file));
+	    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+		for (int s = 0; s < n; s++) {
+		    double[] expected = new double[n];
+		    System.arraycopy(matrix, s * n, expected, 0, n);
+		    assertArrayEquals(expected, JohnsonShortestPaths.readRow(channel, n, s), 0);
+		}
+	    }
+	} finally {
+	    Files.delete(file);
+	}
+    }
+
+    @Test(expected = NegativeCycleException.class)
+    public void shouldFailForNegativeCycleGraphs() throws Exception {
+	new JohnsonShortestPaths<Node>(TestGraphFactory.negativeCycleGraph());
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.allenmp.algs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.google.common.graph.ValueGraph;
+
+public class LandmarkDistanceTest {
+
+    @Test
+    public void shouldBeAdmissibleOnDirectedGrid() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.directedGridExample(8, 8);
+	CsrGraph<Node> csr = CsrGraph.compile(g);
+
+	ForkJoinPool pool = new ForkJoinPool(4);
+	try {
+	    for (LandmarkDistance.Selection selection : LandmarkDistance.Selection.values()) {
+		LandmarkDistance<Node> h = LandmarkDistance.build(csr, 4, selection, pool);
+		assertEquals(4, h.landmarkCount());
+
+		ShortestPathAlg<Node> dijkstra = new DijkstraShortestPath<Node>(g);
+		ShortestPathAlg<Node> alg = new AstarShortestPath<Node>(g, h);
+		for (Node start : g.nodes()) {
+		    for (Node goal : g.nodes()) {
+			if (start.equals(goal)) {
+			    continue;
+			}
+			dijkstra.setEndpoints(start, goal);
+			alg.setEndpoints(start, goal);
+			assertTrue(h.between(start, goal) <= dijkstra.pathLength() + 0.000001);
+			assertEquals(dijkstra.pathLength(), alg.pathLength(), 0.000001);
+		    }
+		}
+	    }
+	} finally {
+	    pool.shutdown();
+	}
+    }
+
+    @Test
+    public void shouldVisitFewerNodesThanDijkstra() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.randomWeightGridExample(40, 40, 1);
+	List<Node> nodes = new ArrayList<>(g.nodes());
+	Random random = new Random(1);
+
+	ShortestPathAlg<Node> dijkstra = new AstarShortestPath<Node>(g, new ZeroDistance());
+	ShortestPathAlg<Node> alg = new AstarShortestPath<Node>(g, LandmarkDistance.build(g, 8));
+
+	int vis1 = 0;
+	int vis2 = 0;
+	for (int i = 0; i < 50; i++) {
+	    Node start = nodes.get(random.nextInt(nodes.size()));
+	    Node goal = nodes.get(random.nextInt(nodes.size()));
+	    dijkstra.setEndpoints(start, goal);
+	    alg.setEndpoints(start, goal);
+
+	    assertEquals(dijkstra.pathLength(), alg.pathLength(), 0.000001);
+	    vis1 += dijkstra.countVisited();
+	    vis2 += alg.countVisited();
+	}
+
+	assertTrue(vis2 < vis1 / 2);
+    }
+
+    @Test
+    public void shouldSearchCsrGraphByIndex() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.randomWeightGridExample(20, 20, 2);
+	CsrGraph<Node> csr = CsrGraph.compile(g);
+	LandmarkDistance<Node> h = LandmarkDistance.build(csr, 4);
+	assertTrue(h.graph() == csr);
+
+	ShortestPathAlg<Node> dijkstra = new CsrDijkstraShortestPath<Node>(csr);
+	CsrAstarShortestPath<Node> alg = new CsrAstarShortestPath<Node>(csr, h);
+	ShortestPathAlg<Node> bidirectional = new BidirectionalAstarShortestPath<Node>(csr, h);
+	for (int s = 0; s < csr.nodeCount(); s += 37) {
+	    for (int t = 0; t < csr.nodeCount(); t += 23) {
+		dijkstra.setEndpoints(csr.node(s), csr.node(t));
+		alg.setEndpoints(csr.node(s), csr.node(t));
+		bidirectional.setEndpoints(csr.node(s), csr.node(t));
+		assertEquals(dijkstra.pathLength(), alg.pathLength(), 0.000001);
+		assertEquals(dijkstra.pathLength(), bidirectional.pathLength(), 0.000001);
+		assertTrue(alg.searchStats().heuristicEvaluations() <= csr.nodeCount());
+	    }
+	}
+    }
+
+    @Test
+    public void shouldUseGivenLandmarks() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.g4gDijkstraExample();
+	CsrGraph<Node> csr = CsrGraph.compile(g);
+	Node landmark = g.nodes().stream().filter(n -> n.getId() == 4).findAny().get();
+	Node source = g.nodes().stream().filter(n -> n.getId() == 0).findAny().get();
+
+	LandmarkDistance<Node> h = LandmarkDistance.build(csr, new Node[] { landmark }, ForkJoinPool.commonPool());
+
+	// d(0, 4) - d(4, 4) is exact
+	assertEquals(landmark, h.landmark(0));
+	assertEquals(21, h.between(source, landmark), 0.001);
+	assertEquals(0, h.between(landmark, landmark), 0.001);
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.allenmp.algs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+public class MappedCsrGraphTest {
+
+    @Test
+    public void shouldRoundTripUndirectedGraph() throws Exception {
+	CsrGraph<Node> csr = CsrGraph.compile(TestGraphFactory.randomWeightGridExample(20, 20, 3L));
+	Path file = Files.createTempFile("graph", ".csr");
+	try {
+	    MappedCsrGraph.write(csr, null, file);
+	    assertEquals(MappedCsrGraph.fileSize(csr.nodeCount(), csr.edgeCount(), false, false), Files.size(file));
+
+	    MappedCsrGraph mapped = MappedCsrGraph.open(file);
+
+	    assertSameAdjacency(csr, mapped);
+	    assertFalse(mapped.hasCoordinates());
+	    assertEquals(-1, mapped.indexOf(csr.nodeCount()));
+
+	    CsrDijkstraShortestPath<Node> expected = new CsrDijkstraShortestPath<>(csr);
+	    CsrDijkstraShortestPath<Integer> actual = new CsrDijkstraShortestPath<>(mapped);
+	    expected.setEndpoints(csr.node(0), csr.node(csr.nodeCount() - 1));
+	    actual.setEndpoints(0, csr.nodeCount() - 1);
+	    assertEquals(expected.pathLength(), actual.pathLength(), 0.0);
+	    assertEquals(expected.path().size(), actual.path().size());
+	} finally {
+	    Files.delete(file);
+	}
+    }
+
+    @Test
+    public void shouldRoundTripDirectedGraphWithCoordinates() throws Exception {
+	CsrGraph<Node> csr = CsrGraph.compile(TestGraphFactory.negativeWeightGridExample(7, 5, 11L));
+	double[] coordinates = new double[2 * csr.nodeCount()];
+	for (int i = 0; i < csr.nodeCount(); i++) {
+	    coordinates[2 * i] = csr.node(i).getCoords()[0];
+	    coordinates[2 * i + 1] = csr.node(i).getCoords()[1];
+	}
+	Path file = Files.createTempFile("graph", ".csr");
+	try {
+	    MappedCsrGraph.write(csr, coordinates, file);
+	    MappedCsrGraph mapped = MappedCsrGraph.open(file);
+
+	    assertTrue(mapped.isDirected());
+	    assertSameAdjacency(csr, mapped);
+	    for (int v = 0; v < csr.nodeCount(); v++) {
+		assertEquals(csr.inEdgeStart(v), mapped.inEdgeStart(v));
+		assertEquals(csr.inEdgeEnd(v), mapped.inEdgeEnd(v));
+		assertEquals(coordinates[2 * v], mapped.x(v), 0.0);
+		assertEquals(coordinates[2 * v + 1], mapped.y(v), 0.0);
+	    }
+	    for (int e = 0; e < csr.edgeCount(); e++) {
+		assertEquals(csr.source(e), mapped.source(e));
+		assertEquals(csr.inWeight(e), mapped.inWeight(e), 0.0);
+	    }
+	} finally {
+	    Files.delete(file);
+	}
+    }
+
+    @Test
+    public void shouldRejectOtherFiles() throws Exception {
+	Path file = Files.createTempFile("graph", ".csr");
+	try {
+	    Files.write(file, "not a graph file, just some text".getBytes("US-ASCII"));
+	    MappedCsrGraph.open(file);
+	    fail("Expected an IOException");
+	} catch (IOException e) {
+	    assertTrue(e.getMessage(), e.getMessage().startsWith("Not a graph file"));
+	} finally {
+	    Files.delete(file);
+	}
+    }
+
+    private static void assertSameAdjacency(CsrGraph<?> expected, CsrGraph<Integer> actual) {
+	assertEquals(expected.isDirected(), actual.isDirected());
+	assertEquals(expected.nodeCount(), actual.nodeCount());
+	assertEquals(expected.edgeCount(), actual.edgeCount());
+	for (int u = 0; u < expected.nodeCount(); u++) {
+	    assertEquals(u, actual.indexOf(actual.node(u)));
+	    assertEquals(expected.edgeStart(u), actual.edgeStart(u));
+	    assertEquals(expected.edgeEnd(u), actual.edgeEnd(u));
+	}
+	for (int e = 0; e < expected.edgeCount(); e++) {
+	    assertEquals(expected.target(e), actual.target(e));
+	    assertEquals(expected.weight(e), actual.weight(e), 0.0);
+	}
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.allenmp.algs;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.google.common.graph.MutableValueGraph;
+import com.google.common.graph.ValueGraph;
+import com.google.common.graph.ValueGraphBuilder;
+
+public class MeteredShortestPathTest {
+
+    @Test
+    public void shouldRecordEachQueryOnce() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.wikipediaDijkstraExample();
+	MetricsRegistry registry = new MetricsRegistry();
+	CsrDijkstraShortestPath<Node> dijkstra = new CsrDijkstraShortestPath<>(CsrGraph.compile(g));
+	ShortestPathAlg<Node> alg = new MeteredShortestPath<>(dijkstra, registry, "dijkstra");
+
+	alg.setEndpoints(node(g, 1), node(g, 5));
+	alg.pathLength();
+	long settled = dijkstra.searchStats().settled();
+	alg.path();
+	alg.countVisited();
+	alg.setGoal(node(g, 6));
+	alg.path();
+
+	MetricsSnapshot s = registry.snapshot();
+	assertEquals(2, s.counter("dijkstra.queries"));
+	assertEquals(0, s.counter("dijkstra.unreachable"));
+	assertEquals(2, s.histogram("dijkstra.latency").count());
+	assertEquals(2, s.histogram("dijkstra.settled").count());
+	assertEquals(settled, s.histogram("dijkstra.settled").max());
+    }
+
+    @Test
+    public void shouldNotRecordSameEndpointsAgain() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.wikipediaDijkstraExample();
+	MetricsRegistry registry = new MetricsRegistry();
+	ShortestPathAlg<Node> alg = new MeteredShortestPath<>(new CsrDijkstraShortestPath<>(CsrGraph.compile(g)),
+		registry, "dijkstra");
+
+	alg.setEndpoints(node(g, 1), node(g, 5));
+	alg.path();
+	alg.setEndpoints(node(g, 1), node(g, 5));
+	alg.path();
+	alg.setStart(node(g, 1));
+	alg.setGoal(node(g, 5));
+	alg.pathLength();
+
+	MetricsSnapshot s = registry.snapshot();
+	assertEquals(1, s.counter("dijkstra.queries"));
+	assertEquals(1, s.histogram("dijkstra.latency").count());
+	assertEquals(1, s.histogram("dijkstra.settled").count());
+    }
+
+    @Test
+    public void shouldCountUnreachableGoals() throws Exception {
+	MutableValueGraph<Node, Double> g = ValueGraphBuilder.directed().build();
+	g.putEdgeValue(new Node(1), new Node(2), 1.0);
+	g.addNode(new Node(3));
+	MetricsRegistry registry = new MetricsRegistry();
+	ShortestPathAlg<Node> alg = new MeteredShortestPath<>(new DijkstraShortestPath<>(g), registry);
+
+	alg.setEndpoints(new Node(1), new Node(3));
+	assertTrue(alg.path().isEmpty());
+	alg.setGoal(new Node(2));
+	assertEquals(1.0, alg.pathLength(), 0.0);
+
+	MetricsSnapshot s = registry.snapshot();
+	assertEquals(2, s.counter("DijkstraShortestPath.queries"));
+	assertEquals(1, s.counter("DijkstraShortestPath.unreachable"));
+    }
+
+    @Test
+    public void shouldCountNegativeCycleRejections() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.negativeCycleGraph();
+	MetricsRegistry registry = new MetricsRegistry();
+	ShortestPathAlg<Node> alg = new MeteredShortestPath<>(new BellmanFordShortestPath<>(g), registry);
+
+	alg.setEndpoints(node(g, 1), node(g, 5));
+	for (int i = 0; i < 2; i++) {
+	    try {
+		alg.pathLength();
+		fail("Expected a negative cycle");
+	    } catch (NegativeCycleException e) {
+		// expected
+	    }
+	}
+
+	MetricsSnapshot s = registry.snapshot();
+	assertEquals(1, s.counter("BellmanFordShortestPath.negativeCycles"));
+	assertEquals(1, s.counter("BellmanFordShortestPath.queries"));
+	assertEquals(0, s.histogram("BellmanFordShortestPath.latency").count());
+    }
+
+    private static Node node(ValueGraph<Node, Double> g, int id) {
+	return g.nodes().stream().filter(n -> n.getId() == id).findAny().get();
+    }
+
+}
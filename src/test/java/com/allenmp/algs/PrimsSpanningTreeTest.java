@@ -0,0 +1,66 @@
+package com.allenmp.algs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.ValueGraph;
+
+public class PrimsSpanningTreeTest {
+
+    @Test
+    public void shouldMatchG4gResults() throws Exception {
+	// https://www.geeksforgeeks.org/prims-minimum-spanning-tree-mst-greedy-algo-5/
+	ValueGraph<Node, Double> g = TestGraphFactory.g4gDijkstraExample();
+
+	SpanningTreeAlg<Node> alg = new PrimsSpanningTree<Node>(g);
+
+	assertEquals(37, alg.totalWeight(), 0.001);
+	assertEquals(1, alg.countTrees());
+	assertTree(g, alg);
+	assertTrue(alg.edges().contains(EndpointPair.unordered(new Node(6), new Node(7))));
+    }
+
+    @Test
+    public void shouldSpanForestOfDisconnectedGraph() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.disconnectedForestExample();
+
+	SpanningTreeAlg<Node> alg = new PrimsSpanningTree<Node>(g);
+
+	assertEquals(6, alg.totalWeight(), 0.001);
+	assertEquals(3, alg.countTrees());
+	assertTree(g, alg);
+    }
+
+    @Test
+    public void shouldTreatDirectedGraphAsUndirected() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.directedGridExample(5, 5);
+
+	SpanningTreeAlg<Node> alg = new PrimsSpanningTree<Node>(g);
+
+	// every grid link has a weight 1 direction
+	assertEquals(24, alg.totalWeight(), 0.001);
+	assertEquals(1, alg.countTrees());
+	assertTree(g, alg);
+    }
+
+    /**
+     * Edges exist in the graph, add up to the total weight and number one less
+     * than the nodes per tree.
+     */
+    static void assertTree(ValueGraph<Node, Double> g, SpanningTreeAlg<Node> alg) {
+	List<EndpointPair<Node>> edges = alg.edges();
+	assertEquals(g.nodes().size() - alg.countTrees(), edges.size());
+	double total = 0;
+	for (EndpointPair<Node> edge : edges) {
+	    assertTrue(g.hasEdgeConnecting(edge.nodeU(), edge.nodeV()));
+	    total += g.edgeValue(edge.nodeU(), edge.nodeV()).get();
+	}
+	assertEquals(alg.totalWeight(), total, 0.000001);
+    }
+
+}
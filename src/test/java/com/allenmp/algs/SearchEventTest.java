@@ -0,0 +1,85 @@
+package com.allenmp.algs;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.graph.ValueGraph;
+
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class SearchEventTest {
+
+    @Test
+    public void shouldRecordQueryPhases() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.wikipediaDijkstraExample();
+	Node start = g.nodes().stream().filter(n -> n.getId() == 1).findAny().get();
+	Node goal = g.nodes().stream().filter(n -> n.getId() == 5).findAny().get();
+
+	Path file = Files.createTempFile("search", ".jfr");
+	List<Node> path;
+	try (Recording recording = new Recording()) {
+	    recording.enable("com.allenmp.algs.Search").withoutThreshold();
+	    recording.enable("com.allenmp.algs.SearchSetup").withoutThreshold();
+	    recording.enable("com.allenmp.algs.PathUnpack").withoutThreshold();
+	    recording.enable("com.allenmp.algs.Preprocess");
+	    recording.start();
+
+	    ShortestPathAlg<Node> alg = new CsrDijkstraShortestPath<>(CsrGraph.compile(g));
+	    alg.setEndpoints(start, goal);
+	    path = alg.path();
+
+	    recording.stop();
+	    recording.dump(file);
+	}
+
+	try {
+	    List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+	    RecordedEvent search = only(events, "com.allenmp.algs.Search");
+	    assertEquals("CsrDijkstraShortestPath", search.getString("algorithm"));
+	    assertEquals(g.nodes().size(), search.getInt("nodeCount"));
+	    assertEquals(start.toString(), search.getString("start"));
+	    assertFalse(search.getBoolean("resumed"));
+	    assertTrue(search.getLong("settled") > 0);
+
+	    assertEquals(g.nodes().size(), only(events, "com.allenmp.algs.SearchSetup").getInt("nodeCount"));
+	    assertEquals(path.size(), only(events, "com.allenmp.algs.PathUnpack").getInt("pathNodes"));
+	    assertEquals("compile", only(events, "com.allenmp.algs.Preprocess").getString("phase"));
+	} finally {
+	    Files.delete(file);
+	}
+    }
+
+    @Test
+    public void shouldOnlyRecordSlowQueriesByDefault() throws Exception {
+	assertEquals("10 ms", defaultThreshold(SearchEvent.class));
+	assertEquals("1 ms", defaultThreshold(SearchSetupEvent.class));
+	assertEquals("1 ms", defaultThreshold(PathUnpackEvent.class));
+	assertEquals("0 ns", defaultThreshold(PreprocessEvent.class));
+    }
+
+    private static String defaultThreshold(Class<? extends jdk.jfr.Event> event) {
+	return EventType.getEventType(event).getSettingDescriptors().stream()
+		.filter(d -> d.getName().equals("threshold")).findAny().get().getDefaultValue();
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+	RecordedEvent found = null;
+	for (RecordedEvent event : events) {
+	    if (event.getEventType().getName().equals(name)) {
+		assertNull("Second " + name, found);
+		found = event;
+	    }
+	}
+	assertNotNull("No " + name, found);
+	return found;
+    }
+
+}
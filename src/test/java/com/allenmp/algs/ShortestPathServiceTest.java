@@ -0,0 +1,90 @@
+package com.allenmp.algs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.ValueGraph;
+
+public class ShortestPathServiceTest {
+
+    @Test
+    public void shouldAnswerConcurrentQueries() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.randomWeightGridExample(30, 30, 1);
+	List<Node> nodes = new ArrayList<>(g.nodes());
+	Random random = new Random(1);
+
+	List<EndpointPair<Node>> queries = new ArrayList<>();
+	for (int i = 0; i < 200; i++) {
+	    queries.add(EndpointPair.ordered(nodes.get(random.nextInt(nodes.size())),
+		    nodes.get(random.nextInt(nodes.size()))));
+	}
+
+	ShortestPathService<Node> service = new ShortestPathService<Node>(g);
+	ExecutorService executor = Executors.newFixedThreadPool(8);
+	try {
+	    List<Future<ShortestPathResult<Node>>> futures = new ArrayList<>();
+	    for (EndpointPair<Node> q : queries) {
+		futures.add(executor.submit(() -> service.query(q.nodeU(), q.nodeV())));
+	    }
+
+	    ShortestPathAlg<Node> dijkstra = new DijkstraShortestPath<Node>(g);
+	    for (int i = 0; i < queries.size(); i++) {
+		EndpointPair<Node> q = queries.get(i);
+		ShortestPathResult<Node> result = futures.get(i).get();
+		dijkstra.setEndpoints(q.nodeU(), q.nodeV());
+		assertEquals(q.nodeV(), result.goal());
+		assertEquals(dijkstra.pathLength(), result.pathLength(), 0.000001);
+		assertEquals(dijkstra.path(), result.path());
+	    }
+	} finally {
+	    executor.shutdown();
+	}
+    }
+
+    @Test
+    public void shouldCompleteBatchInOrder() throws Exception {
+	ValueGraph<Node, Double> g = TestGraphFactory.directedGridExample(8, 8);
+	CsrGraph<Node> csr = CsrGraph.compile(g);
+	List<Node> nodes = new ArrayList<>(g.nodes());
+
+	List<EndpointPair<Node>> queries = new ArrayList<>();
+	for (Node start : nodes) {
+	    queries.add(EndpointPair.ordered(start, nodes.get(0)));
+	}
+
+	ShortestPathService<Node> service = new ShortestPathService<Node>(csr, new EuclideanDistance(),
+		new SearchWorkspacePool(csr, 2));
+	ExecutorService executor = Executors.newFixedThreadPool(4);
+	try {
+	    List<ShortestPathResult<Node>> results = service.queryAll(queries, executor).get();
+	    assertEquals(queries.size(), results.size());
+
+	    ShortestPathAlg<Node> dijkstra = new DijkstraShortestPath<Node>(g);
+	    int unreachable = 0;
+	    for (int i = 0; i < queries.size(); i++) {
+		ShortestPathResult<Node> result = results.get(i);
+		assertEquals(queries.get(i).nodeU(), result.start());
+		dijkstra.setEndpoints(result.start(), result.goal());
+		assertEquals(dijkstra.pathLength(), result.pathLength(), 0.000001);
+		if (!result.isReachable()) {
+		    assertTrue(result.path().isEmpty());
+		    unreachable++;
+		}
+	    }
+	    assertTrue(unreachable > 0);
+	} finally {
+	    executor.shutdown();
+	}
+    }
+
+}
@@ -2,6 +2,7 @@ package com.allenmp.algs;
 
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Random;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -237,4 +238,135 @@ public class TestGraphFactory {
 	return ImmutableValueGraph.copyOf(g);
     }
 
+    /**
+     * Creates an undirected graph of three components: a weighted triangle
+     * 1-2-3, the edge 4-5 and the lone node 6. Its spanning forest weighs 6.
+     * 
+     * @return
+     */
+    public static ValueGraph<Node, Double> disconnectedForestExample() {
+	MutableValueGraph<Node, Double> g = ValueGraphBuilder.undirected().build();
+	g.putEdgeValue(new Node(1), new Node(2), 1.0);
+	g.putEdgeValue(new Node(2), new Node(3), 2.0);
+	g.putEdgeValue(new Node(1), new Node(3), 5.0);
+	g.putEdgeValue(new Node(4), new Node(5), 3.0);
+	g.addNode(new Node(6));
+	return ImmutableValueGraph.copyOf(g);
+    }
+
+    /**
+     * Creates a directed m x n grid of one-way streets: moving right or down
+     * costs 1, moving left or up costs 3, and every third row has no upward
+     * edges at all.
+     * 
+     * @return
+     */
+    public static ValueGraph<Node, Double> directedGridExample(int m, int n) {
+	MutableValueGraph<Node, Double> g = ValueGraphBuilder.directed().build();
+
+	Node[][] grid = new Node[m][n];
+	int id = 0;
+	for (int x = 0; x < m; x++) {
+	    for (int y = 0; y < n; y++) {
+		id++;
+		grid[x][y] = new Node(id, new double[] { x, y });
+		g.addNode(grid[x][y]);
+	    }
+	}
+
+	for (int x = 0; x < m; x++) {
+	    for (int y = 0; y < n; y++) {
+		if (x + 1 < m) {
+		    g.putEdgeValue(grid[x][y], grid[x + 1][y], 1.0);
+		    g.putEdgeValue(grid[x + 1][y], grid[x][y], 3.0);
+		}
+		if (y + 1 < n) {
+		    g.putEdgeValue(grid[x][y], grid[x][y + 1], 1.0);
+		    if (y % 3 != 0) {
+			g.putEdgeValue(grid[x][y + 1], grid[x][y], 3.0);
+		    }
+		}
+	    }
+	}
+
+	return ImmutableValueGraph.copyOf(g);
+    }
+
+    /**
+     * Creates an undirected m x n grid with 4-neighbor links whose weights are
+     * random in [1, 2), so coordinate heuristics are admissible but loose.
+     * 
+     * @return
+     */
+    public static ValueGraph<Node, Double> randomWeightGridExample(int m, int n, long seed) {
+	MutableValueGraph<Node, Double> g = ValueGraphBuilder.undirected().build();
+	Random random = new Random(seed);
+
+	Node[][] grid = new Node[m][n];
+	int id = 0;
+	for (int x = 0; x < m; x++) {
+	    for (int y = 0; y < n; y++) {
+		id++;
+		grid[x][y] = new Node(id, new double[] { x, y });
+		g.addNode(grid[x][y]);
+	    }
+	}
+
+	for (int x = 0; x < m; x++) {
+	    for (int y = 0; y < n; y++) {
+		if (x + 1 < m) {
+		    g.putEdgeValue(grid[x][y], grid[x + 1][y], 1 + random.nextDouble());
+		}
+		if (y + 1 < n) {
+		    g.putEdgeValue(grid[x][y], grid[x][y + 1], 1 + random.nextDouble());
+		}
+	    }
+	}
+
+	return ImmutableValueGraph.copyOf(g);
+    }
+
+    /**
+     * Creates a directed m x n grid with links both ways whose weights are
+     * random in [1, 2) shifted by a random potential per node, so many edges are
+     * negative but every cycle still has positive weight.
+     * 
+     * @return
+     */
+    public static ValueGraph<Node, Double> negativeWeightGridExample(int m, int n, long seed) {
+	MutableValueGraph<Node, Double> g = ValueGraphBuilder.directed().build();
+	Random random = new Random(seed);
+
+	Node[][] grid = new Node[m][n];
+	double[][] potential = new double[m][n];
+	int id = 0;
+	for (int x = 0; x < m; x++) {
+	    for (int y = 0; y < n; y++) {
+		id++;
+		grid[x][y] = new Node(id, new double[] { x, y });
+		potential[x][y] = 3 * random.nextDouble();
+		g.addNode(grid[x][y]);
+	    }
+	}
+
+	for (int x = 0; x < m; x++) {
+	    for (int y = 0; y < n; y++) {
+		if (x + 1 < m) {
+		    g.putEdgeValue(grid[x][y], grid[x + 1][y],
+			    1 + random.nextDouble() + potential[x][y] - potential[x + 1][y]);
+		    g.putEdgeValue(grid[x + 1][y], grid[x][y],
+			    1 + random.nextDouble() + potential[x + 1][y] - potential[x][y]);
+		}
+		if (y + 1 < n) {
+		    g.putEdgeValue(grid[x][y], grid[x][y + 1],
+			    1 + random.nextDouble() + potential[x][y] - potential[x][y + 1]);
+		    g.putEdgeValue(grid[x][y + 1], grid[x][y],
+			    1 + random.nextDouble() + potential[x][y + 1] - potential[x][y]);
+		}
+	    }
+	}
+
+	return ImmutableValueGraph.copyOf(g);
+    }
+
 }